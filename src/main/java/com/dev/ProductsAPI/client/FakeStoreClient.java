@@ -0,0 +1,117 @@
+package com.dev.ProductsAPI.client;
+
+import io.netty.channel.ChannelOption;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.util.retry.Retry;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Non-blocking client for the fake store API. Every call is bounded: connect and response
+ * timeouts on the connection, an overall timeout per attempt, a few retries with jittered exponential backoff for transient
+ * failures (I/O errors, timeouts, 5xx and 429), and a circuit breaker that fails fast while the
+ * upstream keeps failing. Requests are conditional when validators of an earlier response are
+ * known, so an unchanged catalog costs a 304 without a body.
+ */
+@Component
+public class FakeStoreClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(FakeStoreClient.class);
+
+    private final WebClient webClient;
+    private final Duration callTimeout;
+    private final int maxRetries;
+    private final Duration retryBackoff;
+    private final CircuitBreaker circuitBreaker;
+
+    @Autowired
+    public FakeStoreClient(WebClient.Builder webClientBuilder,
+                           @Value("${fakestore.base-url:https://fakestoreapi.com}") String baseUrl,
+                           @Value("${fakestore.connect-timeout:2s}") Duration connectTimeout,
+                           @Value("${fakestore.response-timeout:5s}") Duration responseTimeout,
+                           @Value("${fakestore.call-timeout:10s}") Duration callTimeout,
+                           @Value("${fakestore.retry.max-retries:2}") int maxRetries,
+                           @Value("${fakestore.retry.backoff:200ms}") Duration retryBackoff,
+                           @Value("${fakestore.circuit-breaker.failure-threshold:5}") int failureThreshold,
+                           @Value("${fakestore.circuit-breaker.open-duration:30s}") Duration openDuration,
+                           @Value("${fakestore.max-body-size:16MB}") DataSize maxBodySize) {
+        HttpClient httpClient = HttpClient.create()
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(responseTimeout);
+        this.webClient = webClientBuilder
+                .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize((int) maxBodySize.toBytes()))
+                .build();
+        this.callTimeout = callTimeout;
+        this.maxRetries = maxRetries;
+        this.retryBackoff = retryBackoff;
+        this.circuitBreaker = new CircuitBreaker("fakestore", failureThreshold, openDuration,
+                FakeStoreClient::isTransient, Clock.systemUTC());
+    }
+
+    /**
+     * Downloads the raw catalog. With a {@code previous} response its ETag and Last-Modified are
+     * sent as If-None-Match and If-Modified-Since, and a 304 answer is emitted as
+     * {@link FakeStoreResponse#notModified()}.
+     */
+    public Mono<FakeStoreResponse> fetchProducts(FakeStoreResponse previous) {
+        Mono<FakeStoreResponse> call = webClient.get()
+                .uri("/products")
+                .headers(headers -> {
+                    if (previous != null && previous.etag() != null) {
+                        headers.setIfNoneMatch(previous.etag());
+                    }
+                    if (previous != null && previous.lastModified() != null) {
+                        headers.set(HttpHeaders.IF_MODIFIED_SINCE, previous.lastModified());
+                    }
+                })
+                .exchangeToMono(response -> {
+                    if (response.statusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+                        return response.releaseBody().thenReturn(FakeStoreResponse.notModified());
+                    }
+                    if (response.statusCode().isError()) {
+                        return response.createError();
+                    }
+                    HttpHeaders headers = response.headers().asHttpHeaders();
+                    return response.bodyToMono(byte[].class)
+                            .defaultIfEmpty(new byte[0])
+                            .map(body -> FakeStoreResponse.of(body, headers.getETag(), headers.getFirst(HttpHeaders.LAST_MODIFIED)));
+                })
+                // the response timeout is per read, this also bounds a body that keeps trickling in
+                .timeout(callTimeout)
+                .retryWhen(Retry.backoff(maxRetries, retryBackoff)
+                        .jitter(0.5)
+                        .filter(FakeStoreClient::isTransient)
+                        .doBeforeRetry(signal -> logger.warn("Fake store call failed, retry {}: {}",
+                                signal.totalRetries() + 1, signal.failure().getMessage()))
+                        .onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+        return circuitBreaker.protect(call);
+    }
+
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    static boolean isTransient(Throwable error) {
+        if (error instanceof WebClientResponseException responseException) {
+            return responseException.getStatusCode().is5xxServerError() || responseException.getStatusCode().value() == 429;
+        }
+        return error instanceof WebClientRequestException || error instanceof TimeoutException;
+    }
+}
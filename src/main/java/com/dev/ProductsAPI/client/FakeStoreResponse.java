@@ -0,0 +1,16 @@
+package com.dev.ProductsAPI.client;
+
+/**
+ * Raw answer of the fake store {@code /products} endpoint with the validators needed to ask for
+ * it again conditionally. A {@link #notModified()} response has no body.
+ */
+public record FakeStoreResponse(boolean isNotModified, byte[] body, String etag, String lastModified) {
+
+    public static FakeStoreResponse notModified() {
+        return new FakeStoreResponse(true, new byte[0], null, null);
+    }
+
+    public static FakeStoreResponse of(byte[] body, String etag, String lastModified) {
+        return new FakeStoreResponse(false, body, etag, lastModified);
+    }
+}
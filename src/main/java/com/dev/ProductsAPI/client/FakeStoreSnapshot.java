@@ -0,0 +1,95 @@
+package com.dev.ProductsAPI.client;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.Properties;
+
+/**
+ * Last imported fake store response kept on local disk: the body next to a small properties file
+ * with its validators and digest. Both files are replaced atomically, and a snapshot that cannot
+ * be read is treated as missing, which only costs one unconditional download.
+ */
+@Component
+public class FakeStoreSnapshot {
+
+    private static final Logger logger = LoggerFactory.getLogger(FakeStoreSnapshot.class);
+
+    private static final String BODY_FILE = "products.json";
+    private static final String META_FILE = "products.properties";
+
+    private final Path directory;
+
+    @Autowired
+    public FakeStoreSnapshot(@Value("${fakestore.snapshot-dir:${java.io.tmpdir}/products-api/fakestore}") Path directory) {
+        this.directory = directory;
+    }
+
+    public Optional<FakeStoreResponse> load() {
+        Path meta = directory.resolve(META_FILE);
+        Path body = directory.resolve(BODY_FILE);
+        if (!Files.exists(meta) || !Files.exists(body)) {
+            return Optional.empty();
+        }
+        try (InputStream input = Files.newInputStream(meta)) {
+            Properties properties = new Properties();
+            properties.load(input);
+            byte[] content = Files.readAllBytes(body);
+            if (!digest(content).equals(properties.getProperty("sha256"))) {
+                logger.warn("Fake store snapshot in {} does not match its digest, ignoring it", directory);
+                return Optional.empty();
+            }
+            return Optional.of(FakeStoreResponse.of(content, properties.getProperty("etag"), properties.getProperty("lastModified")));
+        } catch (IOException e) {
+            logger.warn("Could not read the fake store snapshot in {}: {}", directory, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    public void save(FakeStoreResponse response) {
+        try {
+            Files.createDirectories(directory);
+            Path body = Files.createTempFile(directory, BODY_FILE, ".tmp");
+            Files.write(body, response.body());
+            Files.move(body, directory.resolve(BODY_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            Properties properties = new Properties();
+            properties.setProperty("sha256", digest(response.body()));
+            if (response.etag() != null) {
+                properties.setProperty("etag", response.etag());
+            }
+            if (response.lastModified() != null) {
+                properties.setProperty("lastModified", response.lastModified());
+            }
+            Path meta = Files.createTempFile(directory, META_FILE, ".tmp");
+            try (OutputStream output = Files.newOutputStream(meta)) {
+                properties.store(output, "Last imported fake store response");
+            }
+            Files.move(meta, directory.resolve(META_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warn("Could not write the fake store snapshot to {}, the next import downloads the catalog again: {}",
+                    directory, e.getMessage());
+        }
+    }
+
+    static String digest(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -16,7 +16,7 @@ public class DataSourceConfig {
     @ConfigurationProperties(prefix = "spring.datasource.primary")
     public DataSource primaryDataSource() {
         return DataSourceBuilder.create()
-                .url("jdbc:postgresql://localhost:5432/products-api")
+                .url("jdbc:postgresql://localhost:5432/products-api?reWriteBatchedInserts=true")
                 .driverClassName("org.postgresql.Driver")
                 .username("postgres")
                 .password("123")
@@ -20,11 +20,21 @@ public class DatabaseConfig {
             EntityManagerFactoryBuilder builder,
             @Qualifier("primaryDataSource") DataSource primaryDataSource,
             JpaProperties jpaProperties) {
+        HashMap<String, Object> properties = new HashMap<>(jpaProperties.getProperties());
+        // second-level cache for @Cacheable entities, regions are sized in ehcache.xml
+        properties.put("hibernate.cache.use_second_level_cache", "true");
+        properties.put("hibernate.cache.region.factory_class", "jcache");
+        properties.put("hibernate.javax.cache.provider", "org.ehcache.jsr107.EhcacheCachingProvider");
+        properties.put("hibernate.javax.cache.uri", "ehcache.xml");
+        properties.put("hibernate.javax.cache.missing_cache_strategy", "fail");
+        properties.put("jakarta.persistence.sharedCache.mode", "ENABLE_SELECTIVE");
+        properties.put("hibernate.generate_statistics", "true");
+
         return builder
                 .dataSource(primaryDataSource)
                 .packages("com.dev.ProductsAPI.models")
                 .persistenceUnit("primary")
-                .properties(jpaProperties.getProperties())
+                .properties(properties)
                 .build();
     }
 
@@ -36,6 +46,7 @@ public class DatabaseConfig {
         HashMap<String, Object> properties = new HashMap<>(jpaProperties.getProperties());
         properties.put("hibernate.hbm2ddl.auto", "update");
         properties.put("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        properties.put("hibernate.generate_statistics", "true");
 
         return builder
                 .dataSource(secondaryDataSource)
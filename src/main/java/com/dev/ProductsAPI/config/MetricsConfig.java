@@ -0,0 +1,26 @@
+package com.dev.ProductsAPI.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Timers of the application's own layers, recorded by {@link TimedAspect} around methods and
+ * classes annotated with {@code @Timed} and tagged with their class and method. Endpoints
+ * ({@code http.server.requests}), fake store calls ({@code http.client.requests}), Spring Data
+ * repositories ({@code spring.data.repository.invocations}) and Hibernate are timed by Spring Boot
+ * itself; percentiles and histograms are configured in application.properties.
+ */
+@Configuration
+public class MetricsConfig {
+
+    public static final String SERVICE_TIMER = "products.service.invocations";
+    public static final String REPOSITORY_TIMER = "products.repository.invocations";
+    public static final String UPSTREAM_TIMER = "products.upstream.calls";
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
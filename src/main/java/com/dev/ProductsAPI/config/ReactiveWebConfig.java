@@ -0,0 +1,43 @@
+package com.dev.ProductsAPI.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.web.servlet.ServletRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.TomcatHttpHandlerAdapter;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+/**
+ * Serves the reactive routes under {@code /reactive} from the same Tomcat as the MVC controller.
+ * With both web starters Spring Boot starts a servlet container only, so the routes are mounted
+ * the way WebFlux runs on Tomcat: through Servlet non-blocking I/O, where a connection holds no
+ * thread while it waits for the database or for the client to read.
+ */
+@Configuration
+public class ReactiveWebConfig {
+
+    @Bean
+    public ServletRegistrationBean<TomcatHttpHandlerAdapter> reactiveServlet(
+            RouterFunction<ServerResponse> reactiveProductRoutes, ObjectMapper objectMapper) {
+        HandlerStrategies strategies = HandlerStrategies.builder()
+                .codecs(codecs -> {
+                    codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+                    codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+                })
+                .build();
+        HttpHandler httpHandler = RouterFunctions.toHttpHandler(reactiveProductRoutes, strategies);
+
+        ServletRegistrationBean<TomcatHttpHandlerAdapter> registration =
+                new ServletRegistrationBean<>(new TomcatHttpHandlerAdapter(httpHandler), "/reactive/*");
+        registration.setName("reactiveDispatcher");
+        registration.setAsyncSupported(true);
+        registration.setLoadOnStartup(1);
+        return registration;
+    }
+}
@@ -2,6 +2,7 @@ package com.dev.ProductsAPI.config;
 
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.data.r2dbc.repository.config.EnableR2dbcRepositories;
 
 @Configuration
 public class RepositoriesConfig {
@@ -20,4 +21,8 @@ public class RepositoriesConfig {
             transactionManagerRef = "secondaryTransactionManager"
     )
     static class SecondaryJpaRepositoriesConfig { }
+
+    @Configuration
+    @EnableR2dbcRepositories(basePackages = "com.dev.ProductsAPI.reactive")
+    static class ReactiveRepositoriesConfig { }
 }
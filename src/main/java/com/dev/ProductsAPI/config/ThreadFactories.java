@@ -0,0 +1,20 @@
+package com.dev.ProductsAPI.config;
+
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Thread factories for the application's own pools, following {@code spring.threads.virtual.enabled}
+ * like the executors Spring Boot configures. A pool keeps its size either way, so it still bounds
+ * how much of its work runs at once.
+ */
+public final class ThreadFactories {
+
+    private ThreadFactories() {
+    }
+
+    public static ThreadFactory named(String prefix, boolean virtual) {
+        return virtual ? Thread.ofVirtual().name(prefix, 1).factory() : new CustomizableThreadFactory(prefix);
+    }
+}
@@ -1,30 +1,192 @@
 package com.dev.ProductsAPI.config.init;
 
+import com.dev.ProductsAPI.config.ThreadFactories;
 import com.dev.ProductsAPI.models.ProductModel;
 import com.dev.ProductsAPI.repository.primary.ProductRepository;
-import com.dev.ProductsAPI.repository.secondary.ProductsMemoryRepository;
+import com.dev.ProductsAPI.repository.secondary.ProductsReplica;
+import com.dev.ProductsAPI.search.ProductNameIndex;
+import com.dev.ProductsAPI.sync.ProductsReplicaSync;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Copies the primary table into the in-memory replica and the product name search index in the
+ * background. The primary is read in primary-key ordered batches and each batch is written by a
+ * small writer pool, so neither startup nor heap use grows with the catalog. Until the copy is
+ * complete the replica is kept out of the read path and the readiness group reports OUT_OF_SERVICE.
+ * A failed copy is started over after a growing backoff, until one completes.
+ */
 @Component
 public class ProductsMemoryDBInitializer implements ApplicationRunner {
 
+    private static final Logger logger = LoggerFactory.getLogger(ProductsMemoryDBInitializer.class);
+
+    public enum WarmupState { PENDING, LOADING, LOADED, FAILED }
+
     private final ProductRepository productRepository;
-    private final ProductsMemoryRepository productsMemoryRepository;
+    private final ProductsReplica productsReplica;
+    private final ProductsReplicaSync productsReplicaSync;
+    private final ProductNameIndex productNameIndex;
+    private final int batchSize;
+    private final int parallelism;
+    private final boolean virtualThreads;
+    private final Duration retryBackoff;
+    private final Duration maxRetryBackoff;
+
+    private final AtomicLong loadedRows = new AtomicLong();
+    private final AtomicInteger attempts = new AtomicInteger();
+    private volatile WarmupState state = WarmupState.PENDING;
+    private volatile String failure;
 
     @Autowired
-    public ProductsMemoryDBInitializer(ProductRepository productRepository, ProductsMemoryRepository productsMemoryRepository) {
+    public ProductsMemoryDBInitializer(ProductRepository productRepository, ProductsReplica productsReplica,
+                                       ProductsReplicaSync productsReplicaSync,
+                                       ProductNameIndex productNameIndex,
+                                       @Value("${products.replica.warmup.batch-size:1000}") int batchSize,
+                                       @Value("${products.replica.warmup.parallelism:4}") int parallelism,
+                                       @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                                       @Value("${products.replica.warmup.retry-backoff:PT5S}") Duration retryBackoff,
+                                       @Value("${products.replica.warmup.max-retry-backoff:PT5M}") Duration maxRetryBackoff) {
         this.productRepository = productRepository;
-        this.productsMemoryRepository = productsMemoryRepository;
+        this.productsReplica = productsReplica;
+        this.productsReplicaSync = productsReplicaSync;
+        this.productNameIndex = productNameIndex;
+        this.batchSize = batchSize;
+        this.parallelism = parallelism;
+        this.virtualThreads = virtualThreads;
+        this.retryBackoff = retryBackoff;
+        this.maxRetryBackoff = maxRetryBackoff;
     }
 
     @Override
     public void run(ApplicationArguments args) {
-        List<ProductModel> productModelList = productRepository.findAll();
-        productModelList.forEach(productsMemoryRepository::save);
+        Thread warmup = new Thread(this::warmUpUntilLoaded, "replica-warmup");
+        warmup.setDaemon(true);
+        warmup.start();
+    }
+
+    void warmUpUntilLoaded() {
+        Duration backoff = retryBackoff;
+        while (true) {
+            warmUp();
+            if (state != WarmupState.FAILED) {
+                return;
+            }
+            logger.warn("Retrying the replica warm-up in {}", backoff);
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            Duration doubled = backoff.multipliedBy(2);
+            backoff = doubled.compareTo(maxRetryBackoff) > 0 ? maxRetryBackoff : doubled;
+        }
+    }
+
+    void warmUp() {
+        state = WarmupState.LOADING;
+        attempts.incrementAndGet();
+        // a retry copies every row again, writing to the replica is idempotent
+        loadedRows.set(0);
+        long started = System.nanoTime();
+        ExecutorService writers = Executors.newFixedThreadPool(parallelism, ThreadFactories.named("replica-warmup-writer-", virtualThreads));
+        // bounds the batches read ahead of the writers, and with them the heap used by the copy
+        Semaphore inFlight = new Semaphore(parallelism * 2);
+        AtomicBoolean writeFailed = new AtomicBoolean(false);
+        try {
+            startChangeSync();
+            List<ProductModel> batch = productRepository.findFirstBatch(Limit.of(batchSize));
+            while (!batch.isEmpty() && !writeFailed.get()) {
+                inFlight.acquire();
+                List<ProductModel> rows = batch;
+                writers.execute(() -> {
+                    try {
+                        productNameIndex.upsertAll(rows);
+                        if (productsReplica.upsertAll(rows)) {
+                            logger.debug("Replica warm-up: {} products loaded", loadedRows.addAndGet(rows.size()));
+                        } else {
+                            writeFailed.set(true);
+                        }
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+                if (batch.size() < batchSize) {
+                    break;
+                }
+                batch = productRepository.findBatchAfter(batch.get(batch.size() - 1).getIdProduct(), Limit.of(batchSize));
+            }
+            writers.shutdown();
+            writers.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+
+            if (writeFailed.get()) {
+                fail("a batch could not be written to the replica");
+                return;
+            }
+            productsReplica.markLoaded();
+            state = WarmupState.LOADED;
+            logger.info("Replica warm-up finished: {} products in {} ms", loadedRows.get(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fail("interrupted");
+        } catch (RuntimeException e) {
+            fail(e.getMessage());
+        } finally {
+            writers.shutdownNow();
+        }
+    }
+
+    private void startChangeSync() {
+        // a retry replays the changes from the position taken before the first copy; the sync does
+        // not run or prune until the replica is loaded, so rows a failed copy wrote and that changed
+        // since are still covered
+        if (productsReplicaSync.getLastAppliedChangeId() >= 0) {
+            return;
+        }
+        try {
+            productsReplicaSync.startFromCurrentPosition();
+        } catch (RuntimeException e) {
+            logger.warn("Product change log unavailable, the replica will only receive write-through updates: {}", e.getMessage());
+        }
+    }
+
+    private void fail(String reason) {
+        failure = reason;
+        state = WarmupState.FAILED;
+        logger.error("Replica warm-up failed after {} products, reads stay on the primary database: {}", loadedRows.get(), reason);
+    }
+
+    public WarmupState getState() {
+        return state;
+    }
+
+    public int getAttempts() {
+        return attempts.get();
+    }
+
+    public long getLoadedRows() {
+        return loadedRows.get();
+    }
+
+    public String getFailure() {
+        return failure;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,35 @@
+package com.dev.ProductsAPI.config.init;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Part of the readiness group: the instance only takes traffic once the replica warm-up is done.
+ * A failed warm-up is retried, so it reports OUT_OF_SERVICE with the error rather than DOWN.
+ */
+@Component
+public class ProductsReplicaHealthIndicator implements HealthIndicator {
+
+    private final ProductsMemoryDBInitializer productsMemoryDBInitializer;
+
+    @Autowired
+    public ProductsReplicaHealthIndicator(ProductsMemoryDBInitializer productsMemoryDBInitializer) {
+        this.productsMemoryDBInitializer = productsMemoryDBInitializer;
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder builder = switch (productsMemoryDBInitializer.getState()) {
+            case LOADED -> Health.up();
+            case FAILED -> Health.outOfService().withDetail("error", productsMemoryDBInitializer.getFailure());
+            default -> Health.outOfService();
+        };
+        return builder
+                .withDetail("state", productsMemoryDBInitializer.getState())
+                .withDetail("attempts", productsMemoryDBInitializer.getAttempts())
+                .withDetail("loadedProducts", productsMemoryDBInitializer.getLoadedRows())
+                .build();
+    }
+}
@@ -1,23 +1,47 @@
 package com.dev.ProductsAPI.controllers;
 
+import com.dev.ProductsAPI.dtos.BulkIngestReport;
+import com.dev.ProductsAPI.dtos.ImportJobStatus;
+import com.dev.ProductsAPI.dtos.ProductBulkMutationReport;
+import com.dev.ProductsAPI.dtos.ProductKeysetPage;
+import com.dev.ProductsAPI.dtos.ProductPatchDto;
 import com.dev.ProductsAPI.dtos.ProductRecordDto;
+import com.dev.ProductsAPI.dtos.ProductRefDto;
 import com.dev.ProductsAPI.exceptions.*;
+import com.dev.ProductsAPI.jobs.ImportJobService;
 import com.dev.ProductsAPI.models.ProductModel;
+import com.dev.ProductsAPI.projections.ProductFieldSet;
+import com.dev.ProductsAPI.projections.ProductIdView;
+import com.dev.ProductsAPI.representation.LeanProductPage;
+import com.dev.ProductsAPI.representation.ProductETags;
+import com.dev.ProductsAPI.representation.ProductMediaTypes;
+import com.dev.ProductsAPI.representation.ProductRepresentationAssembler;
+import com.dev.ProductsAPI.services.CacheStatisticsService;
+import com.dev.ProductsAPI.services.ProductBulkIngestService;
 import com.dev.ProductsAPI.services.ProductService;
+import com.dev.ProductsAPI.services.ProductStreamService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.hateoas.EntityModel;
-import org.springframework.hateoas.PagedModel;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
 @CrossOrigin("*")
 @RestController
@@ -28,16 +52,42 @@ public class ProductController {
     @Autowired
     ProductService productService;
 
+    @Autowired
+    ProductBulkIngestService productBulkIngestService;
+
+    @Autowired
+    ProductStreamService productStreamService;
+
+    @Autowired
+    CacheStatisticsService cacheStatisticsService;
+
+    @Autowired
+    ImportJobService importJobService;
+
+    @Autowired
+    ProductRepresentationAssembler productRepresentationAssembler;
 
     @PostMapping("/saveDB")
     public ResponseEntity<Object> saveProductsIntoDB() {
         try {
-            List<ProductModel> productList = productService.saveProductsIntoDB();
-            return ResponseEntity.ok(productList);
-        } catch (ApiOutOfServiceException e) {
-            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
-        } catch (ProductNotFoundException e) {
+            ImportJobStatus job = importJobService.submit();
+            return ResponseEntity.accepted()
+                    .location(linkTo(methodOn(ProductController.class).getJob(job.id())).toUri())
+                    .body(job);
+        } catch (RejectedExecutionException e) {
             logger.error(e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Too many import jobs, try again later");
+        } catch (Exception e) {
+            logger.error(e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Internal Server Error");
+        }
+    }
+
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<Object> getJob(@PathVariable(value = "id") UUID id) {
+        try {
+            return ResponseEntity.ok(importJobService.getStatus(id));
+        } catch (JobNotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
         } catch (Exception e) {
             logger.error(e.getMessage());
@@ -56,7 +106,7 @@ public class ProductController {
             List<ProductModel> savedProducts = productService.saveProducts(productRecordDto);
             return ResponseEntity.status(HttpStatus.CREATED).body(savedProducts);
         } catch (ProductSaveException e) {
-            System.out.println(e);
+            logger.error(e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Collections.emptyList());
         } catch (Exception e) {
             logger.error(e.getMessage());
@@ -64,11 +114,75 @@ public class ProductController {
         }
     }
 
+    @PostMapping(value = "/products", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> saveProductsStream(InputStream productRecordDtoStream) {
+        StreamingResponseBody responseBody = output -> productStreamService.ingestNdjson(productRecordDtoStream, output);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(responseBody);
+    }
+
+    @PostMapping("/products/bulk")
+    public ResponseEntity<Object> bulkIngestProducts(@RequestBody @Valid List<ProductRecordDto> productRecordDto) {
+        try {
+            BulkIngestReport report = productBulkIngestService.ingest(productRecordDto);
+            HttpStatus status = report.failed() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+            return ResponseEntity.status(status).body(report);
+        } catch (Exception e) {
+            logger.error(e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Internal Server Error");
+        }
+    }
+
     @GetMapping("/products")
-    public ResponseEntity<?> getAllProducts(Pageable pageable) {
+    public ResponseEntity<?> getAllProducts(Pageable pageable,
+                                            @RequestParam(value = "fields", required = false) String fields,
+                                            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        try {
+            ProductFieldSet fieldSet = fields == null ? null : ProductFieldSet.parse(fields);
+            String variant = ProductETags.variant(accept, fieldSet);
+            if (ifNoneMatch != null) {
+                // ids and versions are all the tag needs, the products are only loaded when it changed
+                String etag = ProductETags.ofViewPage(productService.getAllProducts(pageable, ProductFieldSet.ID), variant);
+                if (ProductETags.matches(ifNoneMatch, etag)) {
+                    return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+                }
+            }
+            if (fieldSet != null) {
+                Page<ProductIdView> page = productService.getAllProducts(pageable, fieldSet);
+                ResponseEntity.BodyBuilder ok = ResponseEntity.ok().eTag(ProductETags.ofViewPage(page, variant));
+                if (ProductMediaTypes.isLeanRequested(accept)) {
+                    return ok.contentType(ProductMediaTypes.LEAN_JSON).body(LeanProductPage.of(page));
+                }
+                return ok.body(productRepresentationAssembler.toPagedViewModel(page));
+            }
+            Page<ProductModel> page = productService.getAllProducts(pageable);
+            ResponseEntity.BodyBuilder ok = ResponseEntity.ok().eTag(ProductETags.ofProductPage(page, variant));
+            if (ProductMediaTypes.isLeanRequested(accept)) {
+                return ok.contentType(ProductMediaTypes.LEAN_JSON).body(LeanProductPage.of(page));
+            }
+            return ok.body(productRepresentationAssembler.toPagedModel(page));
+        } catch (InvalidQueryException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        } catch (NoContentException e) {
+            return ResponseEntity.status(HttpStatus.NO_CONTENT).body(e.getMessage());
+        } catch (Exception e) {
+            logger.error(e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Internal Server Error");
+        }
+    }
+
+    @GetMapping(value = "/products", params = "after")
+    public ResponseEntity<?> getProductsAfter(@RequestParam(value = "after") String after,
+                                              @RequestParam(value = "size", defaultValue = "20") int size,
+                                              @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
         try {
-            PagedModel<EntityModel<ProductModel>> pagedModel = productService.getAllProducts(pageable);
-            return ResponseEntity.ok().body(pagedModel);
+            ProductKeysetPage page = productService.getProductsAfter(after, size);
+            if (ProductMediaTypes.isLeanRequested(accept)) {
+                return ResponseEntity.ok().contentType(ProductMediaTypes.LEAN_JSON).body(page);
+            }
+            return ResponseEntity.ok().body(productRepresentationAssembler.toKeysetModel(page, after));
+        } catch (InvalidCursorException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
         } catch (NoContentException e) {
             return ResponseEntity.status(HttpStatus.NO_CONTENT).body(e.getMessage());
         } catch (Exception e) {
@@ -77,11 +191,97 @@ public class ProductController {
         }
     }
 
+    @GetMapping("/products/query")
+    public ResponseEntity<?> queryProducts(@RequestParam(value = "namePrefix", required = false) String namePrefix,
+                                           @RequestParam(value = "minValue", required = false) BigDecimal minValue,
+                                           @RequestParam(value = "maxValue", required = false) BigDecimal maxValue,
+                                           Pageable pageable,
+                                           @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        try {
+            Page<ProductModel> page = productService.queryProducts(namePrefix, minValue, maxValue, pageable);
+            return pageResponse(page, accept);
+        } catch (InvalidQueryException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        } catch (NoContentException e) {
+            return ResponseEntity.status(HttpStatus.NO_CONTENT).body(e.getMessage());
+        } catch (Exception e) {
+            logger.error(e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Internal Server Error");
+        }
+    }
+
+    @GetMapping("/products/search")
+    public ResponseEntity<?> searchProducts(@RequestParam(value = "q") String query, Pageable pageable,
+                                            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        try {
+            Page<ProductModel> page = productService.searchProducts(query, pageable);
+            return pageResponse(page, accept);
+        } catch (InvalidQueryException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        } catch (NoContentException e) {
+            return ResponseEntity.status(HttpStatus.NO_CONTENT).body(e.getMessage());
+        } catch (Exception e) {
+            logger.error(e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Internal Server Error");
+        }
+    }
+
+    @GetMapping("/products/export")
+    public ResponseEntity<?> exportProducts(@RequestParam(value = "format", defaultValue = "ndjson") String format) {
+        ProductStreamService.ExportFormat exportFormat;
+        try {
+            exportFormat = ProductStreamService.ExportFormat.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("invalid params");
+        }
+        MediaType contentType = exportFormat == ProductStreamService.ExportFormat.CSV
+                ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                : MediaType.APPLICATION_NDJSON;
+        StreamingResponseBody responseBody = output -> productStreamService.export(exportFormat, output);
+        return ResponseEntity.ok().contentType(contentType).body(responseBody);
+    }
+
+    @GetMapping("/products/cache/stats")
+    public ResponseEntity<Object> getProductCacheStatistics() {
+        try {
+            return ResponseEntity.ok(cacheStatisticsService.getProductCacheStatistics());
+        } catch (Exception e) {
+            logger.error(e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Internal Server Error");
+        }
+    }
+
     @GetMapping("/products/{id}")
-    public ResponseEntity<Object> getOneProduct(@PathVariable(value = "id") UUID id) {
+    public ResponseEntity<Object> getOneProduct(@PathVariable(value = "id") UUID id,
+                                                @RequestParam(value = "fields", required = false) String fields,
+                                                @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                                @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
+            ProductFieldSet fieldSet = fields == null ? null : ProductFieldSet.parse(fields);
+            String variant = ProductETags.variant(accept, fieldSet);
+            if (ifNoneMatch != null) {
+                // only the version is read to compare the tag, the product is loaded when it changed
+                String etag = ProductETags.ofProduct(productService.getOneProduct(id, ProductFieldSet.ID).getVersion(), variant);
+                if (etag != null && ProductETags.matches(ifNoneMatch, etag)) {
+                    return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+                }
+            }
+            if (fieldSet != null) {
+                ProductIdView view = productService.getOneProduct(id, fieldSet);
+                ResponseEntity.BodyBuilder ok = okWithETag(ProductETags.ofProduct(view.getVersion(), variant));
+                if (ProductMediaTypes.isLeanRequested(accept)) {
+                    return ok.contentType(ProductMediaTypes.LEAN_JSON).body(view);
+                }
+                return ok.body(productRepresentationAssembler.toViewModel(view));
+            }
             ProductModel product = productService.getOneProduct(id);
-            return ResponseEntity.ok(product);
+            ResponseEntity.BodyBuilder ok = okWithETag(ProductETags.ofProduct(product.getVersion(), variant));
+            if (ProductMediaTypes.isLeanRequested(accept)) {
+                return ok.contentType(ProductMediaTypes.LEAN_JSON).body(product);
+            }
+            return ok.body(productRepresentationAssembler.toModel(product));
+        } catch (InvalidQueryException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
         } catch (ProductNotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
         } catch (Exception e) {
@@ -92,13 +292,25 @@ public class ProductController {
 
     @PutMapping("/products/{id}")
     public ResponseEntity<Object> updateProduct(@PathVariable(value = "id") UUID id,
+                                                @RequestParam(value = "version", required = false) Long version,
+                                                @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
                                                 @RequestBody @Valid ProductRecordDto productRecordDto)
     {
+        // If-Match takes precedence over the version parameter
+        if (ifMatch != null && !ProductETags.isAny(ifMatch)) {
+            OptionalLong matched = ProductETags.versionOf(ifMatch);
+            if (matched.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body("If-Match does not name a version of this product");
+            }
+            version = matched.getAsLong();
+        }
         try {
-            ProductModel product = productService.updateProduct(id, productRecordDto);
-            return ResponseEntity.ok(product);
+            ProductModel product = productService.updateProduct(id, productRecordDto, version);
+            return okWithETag(ProductETags.ofProduct(product.getVersion(), ProductETags.JSON_VARIANT)).body(product);
         } catch (ProductNotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (ProductVersionConflictException e) {
+            return ResponseEntity.status(ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT).body(e.getMessage());
         } catch (Exception e) {
             logger.error(e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Internal Server Error");
@@ -106,18 +318,76 @@ public class ProductController {
     }
 
     @DeleteMapping("/products/{id}")
-    public ResponseEntity<Object> deleteProduct(@PathVariable(value = "id") UUID id) {
+    public ResponseEntity<Object> deleteProduct(@PathVariable(value = "id") UUID id,
+                                                @RequestParam(value = "version", required = false) Long version,
+                                                @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (ifMatch != null && !ProductETags.isAny(ifMatch)) {
+            OptionalLong matched = ProductETags.versionOf(ifMatch);
+            if (matched.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body("If-Match does not name a version of this product");
+            }
+            version = matched.getAsLong();
+        }
         try {
-            productService.deleteProduct(id);
+            productService.deleteProduct(id, version);
             return ResponseEntity.status(HttpStatus.OK).body("Product deleted successfully.");
         } catch (ProductNotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (ProductVersionConflictException e) {
+            return ResponseEntity.status(ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Internal Server Error");
+        }
+    }
+
+    @PostMapping("/products:batchGet")
+    public ResponseEntity<Object> batchGetProducts(@RequestBody List<UUID> ids) {
+        try {
+            return ResponseEntity.ok(productService.getProducts(ids));
+        } catch (InvalidQueryException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        } catch (Exception e) {
+            logger.error(e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Internal Server Error");
+        }
+    }
+
+    @PatchMapping("/products")
+    public ResponseEntity<Object> patchProducts(@RequestBody @Valid List<ProductPatchDto> productPatchDto) {
+        try {
+            ProductBulkMutationReport<ProductModel> report = productService.patchProducts(productPatchDto);
+            return ResponseEntity.status(report.allApplied() ? HttpStatus.OK : HttpStatus.MULTI_STATUS).body(report);
+        } catch (InvalidQueryException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
         } catch (Exception e) {
+            logger.error(e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Internal Server Error");
         }
     }
 
+    @PostMapping("/products:batchDelete")
+    public ResponseEntity<Object> batchDeleteProducts(@RequestBody @Valid List<ProductRefDto> productRefDto) {
+        try {
+            ProductBulkMutationReport<UUID> report = productService.deleteProducts(productRefDto);
+            return ResponseEntity.status(report.allApplied() ? HttpStatus.OK : HttpStatus.MULTI_STATUS).body(report);
+        } catch (InvalidQueryException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        } catch (Exception e) {
+            logger.error(e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Internal Server Error");
+        }
+    }
+
+    private static ResponseEntity.BodyBuilder okWithETag(String etag) {
+        return etag == null ? ResponseEntity.ok() : ResponseEntity.ok().eTag(etag);
+    }
 
+    private ResponseEntity<?> pageResponse(Page<ProductModel> page, String accept) {
+        if (ProductMediaTypes.isLeanRequested(accept)) {
+            return ResponseEntity.ok().contentType(ProductMediaTypes.LEAN_JSON).body(LeanProductPage.of(page));
+        }
+        return ResponseEntity.ok().body(productRepresentationAssembler.toPagedModel(page));
+    }
 
 
 }
@@ -0,0 +1,17 @@
+package com.dev.ProductsAPI.dtos;
+
+import java.util.List;
+
+public record BulkIngestReport(int received, int saved, int failed, List<ChunkReport> chunks) {
+
+    public static BulkIngestReport of(int received, List<ChunkReport> chunks) {
+        int saved = chunks.stream().mapToInt(ChunkReport::saved).sum();
+        return new BulkIngestReport(received, saved, received - saved, chunks);
+    }
+
+    public record ChunkReport(int chunk, int offset, int size, int saved, List<ItemFailure> failures) {
+    }
+
+    public record ItemFailure(int index, String name, String reason) {
+    }
+}
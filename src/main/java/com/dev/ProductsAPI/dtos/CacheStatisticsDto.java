@@ -0,0 +1,5 @@
+package com.dev.ProductsAPI.dtos;
+
+public record CacheStatisticsDto(String region, long hitCount, long missCount, long putCount,
+                                 long elementCountInMemory, double hitRatio) {
+}
@@ -0,0 +1,9 @@
+package com.dev.ProductsAPI.dtos;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record ImportJobStatus(UUID id, String phase, int itemsTotal, int itemsProcessed, double itemsPerSecond,
+                              Instant submittedAt, Instant startedAt, Instant finishedAt,
+                              String error, ProductSyncReport report) {
+}
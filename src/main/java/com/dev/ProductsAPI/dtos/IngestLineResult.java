@@ -0,0 +1,24 @@
+package com.dev.ProductsAPI.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+import java.util.UUID;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record IngestLineResult(long line, Status status, UUID idProduct, List<String> errors) {
+
+    public enum Status { CREATED, INVALID, FAILED }
+
+    public static IngestLineResult created(long line, UUID idProduct) {
+        return new IngestLineResult(line, Status.CREATED, idProduct, null);
+    }
+
+    public static IngestLineResult invalid(long line, List<String> errors) {
+        return new IngestLineResult(line, Status.INVALID, null, errors);
+    }
+
+    public static IngestLineResult failed(long line, String error) {
+        return new IngestLineResult(line, Status.FAILED, null, List.of(error));
+    }
+}
@@ -7,6 +7,8 @@ import java.math.BigDecimal;
 
 @Data
 public class ProductApiDTO {
+    @JsonAlias("id")
+    private Long externalId;
     @JsonAlias("title")
     private String name;
     @JsonAlias("price")
@@ -0,0 +1,9 @@
+package com.dev.ProductsAPI.dtos;
+
+import com.dev.ProductsAPI.models.ProductModel;
+
+import java.util.List;
+import java.util.UUID;
+
+public record ProductBatchGetResult(List<ProductModel> products, List<UUID> notFound) {
+}
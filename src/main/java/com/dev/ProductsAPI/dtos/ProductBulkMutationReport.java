@@ -0,0 +1,15 @@
+package com.dev.ProductsAPI.dtos;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Outcome of a bulk update or delete: what was applied, the products that do not exist and the
+ * ones that were at another version than the expected one.
+ */
+public record ProductBulkMutationReport<T>(int received, List<T> applied, List<UUID> notFound, List<UUID> conflicts) {
+
+    public boolean allApplied() {
+        return applied.size() == received;
+    }
+}
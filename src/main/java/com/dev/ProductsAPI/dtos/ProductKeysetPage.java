@@ -0,0 +1,12 @@
+package com.dev.ProductsAPI.dtos;
+
+import com.dev.ProductsAPI.models.ProductModel;
+
+import java.util.List;
+
+/**
+ * One page of the keyset pagination. {@code next} is the cursor of the following page, null on
+ * the last one.
+ */
+public record ProductKeysetPage(List<ProductModel> content, int size, String next) {
+}
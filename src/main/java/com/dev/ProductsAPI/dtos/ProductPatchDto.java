@@ -0,0 +1,13 @@
+package com.dev.ProductsAPI.dtos;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * One product of a bulk update. A null name or value is left as it is; with a version the product
+ * is only updated while it is still at that version.
+ */
+public record ProductPatchDto(@NotNull UUID idProduct, String name, BigDecimal value, Long version) {
+}
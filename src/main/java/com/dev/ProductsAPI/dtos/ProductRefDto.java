@@ -0,0 +1,11 @@
+package com.dev.ProductsAPI.dtos;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.util.UUID;
+
+/**
+ * A product of a bulk delete, with a version only deleted while it is still at that version.
+ */
+public record ProductRefDto(@NotNull UUID idProduct, Long version) {
+}
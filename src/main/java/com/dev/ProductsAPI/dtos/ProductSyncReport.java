@@ -0,0 +1,8 @@
+package com.dev.ProductsAPI.dtos;
+
+public record ProductSyncReport(boolean upstreamModified, int received, int inserted, int updated, int unchanged) {
+
+    public static ProductSyncReport notModified() {
+        return new ProductSyncReport(false, 0, 0, 0, 0);
+    }
+}
@@ -0,0 +1,7 @@
+package com.dev.ProductsAPI.exceptions;
+
+public class InvalidQueryException extends RuntimeException{
+    public InvalidQueryException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.dev.ProductsAPI.exceptions;
+
+public class ProductVersionConflictException extends RuntimeException{
+    public ProductVersionConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,88 @@
+package com.dev.ProductsAPI.jobs;
+
+import com.dev.ProductsAPI.dtos.ImportJobStatus;
+import com.dev.ProductsAPI.dtos.ProductSyncReport;
+import com.dev.ProductsAPI.services.ImportProgress;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One fake store import running in the background. Written by the job thread and read by any
+ * number of pollers, so every field is published on its own and a status is a snapshot of them.
+ */
+public class ImportJob implements ImportProgress {
+
+    public enum Phase { QUEUED, FETCHING, SAVING, COMPLETED, FAILED }
+
+    private final UUID id = UUID.randomUUID();
+    private final Clock clock;
+    private final Instant submittedAt;
+    private final AtomicInteger itemsProcessed = new AtomicInteger();
+    private volatile Phase phase = Phase.QUEUED;
+    private volatile int itemsTotal;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String error;
+    private volatile ProductSyncReport report;
+
+    ImportJob(Clock clock) {
+        this.clock = clock;
+        this.submittedAt = clock.instant();
+    }
+
+    @Override
+    public void fetching() {
+        startedAt = clock.instant();
+        phase = Phase.FETCHING;
+    }
+
+    @Override
+    public void saving(int items) {
+        itemsTotal = items;
+        phase = Phase.SAVING;
+    }
+
+    @Override
+    public void saved(int items) {
+        itemsProcessed.addAndGet(items);
+    }
+
+    void complete(ProductSyncReport report) {
+        this.report = report;
+        finishedAt = clock.instant();
+        phase = Phase.COMPLETED;
+    }
+
+    void fail(String error) {
+        this.error = error;
+        finishedAt = clock.instant();
+        phase = Phase.FAILED;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public boolean isFinished() {
+        Phase current = phase;
+        return current == Phase.COMPLETED || current == Phase.FAILED;
+    }
+
+    public ImportJobStatus status() {
+        Phase current = phase;
+        Instant started = startedAt;
+        Instant finished = finishedAt;
+        int processed = itemsProcessed.get();
+        double itemsPerSecond = 0;
+        if (started != null) {
+            long elapsedMillis = Duration.between(started, finished != null ? finished : clock.instant()).toMillis();
+            itemsPerSecond = elapsedMillis == 0 ? 0 : processed * 1000.0 / elapsedMillis;
+        }
+        return new ImportJobStatus(id, current.name(), itemsTotal, processed, itemsPerSecond,
+                submittedAt, started, finished, error, report);
+    }
+}
@@ -0,0 +1,106 @@
+package com.dev.ProductsAPI.jobs;
+
+import com.dev.ProductsAPI.config.ThreadFactories;
+import com.dev.ProductsAPI.dtos.ImportJobStatus;
+import com.dev.ProductsAPI.exceptions.JobNotFoundException;
+import com.dev.ProductsAPI.services.ProductService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs fake store imports off the request thread on a small bounded pool. Only one import runs at
+ * a time: submitting while one is queued or running hands back that job instead of starting a
+ * second one. Finished jobs are kept, up to a limit, so their outcome can still be polled.
+ */
+@Service
+public class ImportJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportJobService.class);
+
+    private final ProductService productService;
+    private final ThreadPoolExecutor executor;
+    private final Clock clock;
+    private final Map<UUID, ImportJob> jobs;
+    private ImportJob currentJob;
+
+    @Autowired
+    public ImportJobService(ProductService productService,
+                            @Value("${products.import.jobs.threads:1}") int threads,
+                            @Value("${products.import.jobs.queue-capacity:4}") int queueCapacity,
+                            @Value("${products.import.jobs.retained:100}") int retained,
+                            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this(productService, threads, queueCapacity, retained, ThreadFactories.named("import-job-", virtualThreads), Clock.systemUTC());
+    }
+
+    ImportJobService(ProductService productService, int threads, int queueCapacity, int retained,
+                     ThreadFactory threadFactory, Clock clock) {
+        this.productService = productService;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory);
+        this.clock = clock;
+        this.jobs = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, ImportJob> eldest) {
+                return size() > retained && eldest.getValue().isFinished();
+            }
+        };
+    }
+
+    /**
+     * Queues an import, or returns the import already queued or running.
+     *
+     * @throws RejectedExecutionException when the pool cannot take another job
+     */
+    public synchronized ImportJobStatus submit() {
+        if (currentJob != null && !currentJob.isFinished()) {
+            return currentJob.status();
+        }
+        ImportJob job = new ImportJob(clock);
+        executor.execute(() -> run(job));
+        jobs.put(job.getId(), job);
+        currentJob = job;
+        return job.status();
+    }
+
+    public synchronized ImportJobStatus getStatus(UUID id) {
+        ImportJob job = jobs.get(id);
+        if (job == null) {
+            throw new JobNotFoundException("Job not found");
+        }
+        return job.status();
+    }
+
+    private void run(ImportJob job) {
+        try {
+            job.complete(productService.saveProductsIntoDB(job));
+            logger.info("Import job {} finished: {}", job.getId(), job.status().report());
+        } catch (RuntimeException e) {
+            job.fail(e.getMessage());
+            logger.error("Import job {} failed: {}", job.getId(), e.getMessage());
+        } catch (Error e) {
+            // a job left running would be handed back by every later submit until a restart
+            job.fail(e.toString());
+            logger.error("Import job {} failed", job.getId(), e);
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,33 @@
+package com.dev.ProductsAPI.mappers;
+
+import com.dev.ProductsAPI.dtos.ProductApiDTO;
+import com.dev.ProductsAPI.dtos.ProductRecordDto;
+import com.dev.ProductsAPI.models.ProductModel;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingConstants;
+import org.mapstruct.MappingTarget;
+
+/**
+ * Maps the product DTOs onto {@link ProductModel}. MapStruct generates the implementation at
+ * compile time as plain getter and setter calls, so nothing is introspected at runtime. The id
+ * and the version are always left to the database, and only the fake store import carries an
+ * external id.
+ */
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING)
+public interface ProductMapper {
+
+    @Mapping(target = "idProduct", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "externalId", ignore = true)
+    ProductModel toProductModel(ProductRecordDto productRecordDto);
+
+    @Mapping(target = "idProduct", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    ProductModel toProductModel(ProductApiDTO productApiDTO);
+
+    @Mapping(target = "idProduct", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "externalId", ignore = true)
+    void updateProductModel(ProductRecordDto productRecordDto, @MappingTarget ProductModel productModel);
+}
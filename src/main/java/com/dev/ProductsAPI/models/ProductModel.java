@@ -1,8 +1,11 @@
 package com.dev.ProductsAPI.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.persistence.*;
 import lombok.*;
-import org.springframework.hateoas.RepresentationModel;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.io.Serializable;
 import java.math.BigDecimal;
@@ -13,11 +16,15 @@ import java.util.UUID;
 @Getter
 @Entity
 @Table(name = "\"tb products\"")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = ProductModel.CACHE_REGION)
 @AllArgsConstructor
 @NoArgsConstructor
-public class ProductModel extends RepresentationModel<ProductModel> implements Serializable {
+public class ProductModel implements Serializable {
     private static final long serialVersionUID = 1L;
 
+    public static final String CACHE_REGION = "products";
+
     @Id
     @GeneratedValue(strategy = GenerationType.AUTO)
     @Column(name="id_product")
@@ -26,12 +33,29 @@ public class ProductModel extends RepresentationModel<ProductModel> implements S
     private String name;
     private BigDecimal value;
 
+    // id of the product in the fake store, null for products created through this API
+    @JsonIgnore
+    @Column(name="external_id")
+    private Long externalId;
+
+    // optimistic lock, bumped by every update; null where a read does not carry it (the name index)
+    @Version
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long version;
+
+    public ProductModel(UUID idProduct, String name, BigDecimal value) {
+        this.idProduct = idProduct;
+        this.name = name;
+        this.value = value;
+    }
+
     @Override
     public String toString() {
         return "ProductModel{" +
                 "idProduct=" + idProduct +
                 ", name='" + name + '\'' +
                 ", value=" + value +
+                ", version=" + version +
                 '}';
     }
 
@@ -39,13 +63,12 @@ public class ProductModel extends RepresentationModel<ProductModel> implements S
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
-        if (!super.equals(o)) return false;
         ProductModel that = (ProductModel) o;
         return Objects.equals(idProduct, that.idProduct) && Objects.equals(name, that.name);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(super.hashCode(), idProduct, name);
+        return Objects.hash(idProduct, name);
     }
 }
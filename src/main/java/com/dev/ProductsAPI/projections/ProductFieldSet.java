@@ -0,0 +1,46 @@
+package com.dev.ProductsAPI.projections;
+
+import com.dev.ProductsAPI.exceptions.InvalidQueryException;
+
+import java.util.Locale;
+
+/**
+ * The sparse fieldsets a client can ask for with {@code fields=}, each read through its own
+ * projection. {@code idProduct} and {@code version} are always included, whether listed or not.
+ */
+public enum ProductFieldSet {
+    ID(ProductIdView.class),
+    NAME(ProductNameView.class),
+    VALUE(ProductValueView.class),
+    ALL(ProductView.class);
+
+    private final Class<? extends ProductIdView> viewType;
+
+    ProductFieldSet(Class<? extends ProductIdView> viewType) {
+        this.viewType = viewType;
+    }
+
+    public Class<? extends ProductIdView> getViewType() {
+        return viewType;
+    }
+
+    /**
+     * Parses a comma separated list of {@code idProduct}, {@code version}, {@code name} and {@code value}.
+     */
+    public static ProductFieldSet parse(String fields) {
+        boolean name = false;
+        boolean value = false;
+        for (String field : fields.split(",")) {
+            switch (field.trim().toLowerCase(Locale.ROOT)) {
+                case "", "idproduct", "version" -> { }
+                case "name" -> name = true;
+                case "value" -> value = true;
+                default -> throw new InvalidQueryException("Unknown product field: " + field.trim());
+            }
+        }
+        if (name && value) {
+            return ALL;
+        }
+        return name ? NAME : value ? VALUE : ID;
+    }
+}
@@ -0,0 +1,15 @@
+package com.dev.ProductsAPI.projections;
+
+import java.util.UUID;
+
+/**
+ * Closed projection of a product to its id and version, the fields every sparse fieldset includes
+ * since links are built from the id and ETags from the version. Spring Data selects only the
+ * columns of the projection it is asked for.
+ */
+public interface ProductIdView {
+
+    UUID getIdProduct();
+
+    Long getVersion();
+}
@@ -0,0 +1,6 @@
+package com.dev.ProductsAPI.projections;
+
+public interface ProductNameView extends ProductIdView {
+
+    String getName();
+}
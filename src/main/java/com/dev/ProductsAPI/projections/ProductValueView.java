@@ -0,0 +1,8 @@
+package com.dev.ProductsAPI.projections;
+
+import java.math.BigDecimal;
+
+public interface ProductValueView extends ProductIdView {
+
+    BigDecimal getValue();
+}
@@ -0,0 +1,4 @@
+package com.dev.ProductsAPI.projections;
+
+public interface ProductView extends ProductNameView, ProductValueView {
+}
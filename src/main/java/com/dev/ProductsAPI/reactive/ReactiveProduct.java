@@ -0,0 +1,16 @@
+package com.dev.ProductsAPI.reactive;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Read model of a product for the R2DBC repositories; writes keep going through the JPA
+ * {@link com.dev.ProductsAPI.models.ProductModel}.
+ */
+@Table("tb products")
+public record ReactiveProduct(@Id @Column("id_product") UUID idProduct, String name, BigDecimal value) {
+}
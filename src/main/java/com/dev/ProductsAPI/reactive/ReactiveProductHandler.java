@@ -0,0 +1,61 @@
+package com.dev.ProductsAPI.reactive;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Component
+public class ReactiveProductHandler {
+
+    @Autowired
+    ReactiveProductRepository reactiveProductRepository;
+
+    /**
+     * Streams the products in id order as NDJSON, or as server-sent events when the client asks for
+     * them. Rows are only read as fast as the client consumes them. {@code after} resumes a stream
+     * after the last id received, {@code limit} stops it early.
+     */
+    public Mono<ServerResponse> streamProducts(ServerRequest request) {
+        Optional<UUID> after;
+        Optional<Integer> limit;
+        try {
+            after = request.queryParam("after").map(UUID::fromString);
+            limit = request.queryParam("limit").map(Integer::valueOf);
+        } catch (IllegalArgumentException e) {
+            return ServerResponse.badRequest().bodyValue("invalid params");
+        }
+        if (limit.isPresent() && limit.get() < 1) {
+            return ServerResponse.badRequest().bodyValue("invalid params");
+        }
+
+        Flux<ReactiveProduct> products = after.map(reactiveProductRepository::streamAfter)
+                .orElseGet(reactiveProductRepository::streamAll);
+        if (limit.isPresent()) {
+            products = products.take(limit.get(), true);
+        }
+        MediaType mediaType = request.headers().accept().contains(MediaType.TEXT_EVENT_STREAM)
+                ? MediaType.TEXT_EVENT_STREAM
+                : MediaType.APPLICATION_NDJSON;
+        return ServerResponse.ok().contentType(mediaType).body(products, ReactiveProduct.class);
+    }
+
+    public Mono<ServerResponse> getOneProduct(ServerRequest request) {
+        UUID id;
+        try {
+            id = UUID.fromString(request.pathVariable("id"));
+        } catch (IllegalArgumentException e) {
+            return ServerResponse.badRequest().bodyValue("invalid params");
+        }
+        return reactiveProductRepository.findById(id)
+                .flatMap(product -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(product))
+                .switchIfEmpty(ServerResponse.status(HttpStatus.NOT_FOUND).bodyValue("This product was not found. Try again."));
+    }
+}
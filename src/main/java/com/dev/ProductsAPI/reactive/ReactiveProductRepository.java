@@ -0,0 +1,28 @@
+package com.dev.ProductsAPI.reactive;
+
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * Every query is spelled out: derived queries would not quote the table name, which has a space
+ * in it, and {@code value} is a keyword in H2.
+ * <p>
+ * The streaming queries are backpressured down to the database: with {@code fetchSize} set, the
+ * PostgreSQL driver reads the rows through a portal in batches as they are requested.
+ */
+public interface ReactiveProductRepository extends Repository<ReactiveProduct, UUID> {
+
+    @Query("SELECT \"id_product\", \"name\", \"value\" FROM \"tb products\" WHERE \"id_product\" = :id")
+    Mono<ReactiveProduct> findById(@Param("id") UUID id);
+
+    @Query("SELECT \"id_product\", \"name\", \"value\" FROM \"tb products\" ORDER BY \"id_product\"")
+    Flux<ReactiveProduct> streamAll();
+
+    @Query("SELECT \"id_product\", \"name\", \"value\" FROM \"tb products\" WHERE \"id_product\" > :after ORDER BY \"id_product\"")
+    Flux<ReactiveProduct> streamAfter(@Param("after") UUID after);
+}
@@ -0,0 +1,19 @@
+package com.dev.ProductsAPI.reactive;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.GET;
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+@Configuration
+public class ReactiveProductRouter {
+
+    @Bean
+    public RouterFunction<ServerResponse> reactiveProductRoutes(ReactiveProductHandler handler) {
+        return route(GET("/products/{id}"), handler::getOneProduct)
+                .andRoute(GET("/products"), handler::streamProducts);
+    }
+}
@@ -0,0 +1,33 @@
+package com.dev.ProductsAPI.repository;
+
+import com.dev.ProductsAPI.models.ProductModel;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Read-only view shared by every store products can be read from, so reads can be routed
+ * without the caller knowing which store answers.
+ */
+public interface ProductReader {
+
+    Optional<ProductModel> findById(UUID id);
+
+    /**
+     * Reads the products with the given ids in one query, in no particular order. Ids without a
+     * product are left out.
+     */
+    List<ProductModel> findAllById(Iterable<UUID> ids);
+
+    Page<ProductModel> findAll(Pageable pageable);
+
+    /**
+     * Reads only the properties of the projection {@code type}, without managing the rows as entities.
+     */
+    <T> Optional<T> findProjectedByIdProduct(UUID idProduct, Class<T> type);
+
+    <T> Page<T> findProjectedBy(Pageable pageable, Class<T> type);
+}
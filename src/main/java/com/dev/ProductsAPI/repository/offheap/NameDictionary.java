@@ -0,0 +1,167 @@
+package com.dev.ProductsAPI.repository.offheap;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Dictionary of product names kept off-heap: each distinct name is stored once as UTF-8 in a byte
+ * arena and rows only hold its int code. Codes are never reused, so a name that is no longer
+ * referenced stays in the arena until the application restarts and the replica is warmed again.
+ * Not thread-safe, {@link OffHeapProductStore} guards it with its own lock.
+ */
+final class NameDictionary {
+
+    static final int NO_NAME = -1;
+
+    private ByteBuffer arena;
+    private int arenaUsed;
+    private ByteBuffer offsets;
+    private ByteBuffer lengths;
+    private int size;
+    // open addressing on the name bytes, a slot holds code + 1 and 0 marks it empty
+    private ByteBuffer slots;
+    private int slotMask;
+
+    NameDictionary(int initialCodes) {
+        int codes = Math.max(16, initialCodes);
+        this.arena = ByteBuffer.allocateDirect(codes * 16);
+        this.offsets = ByteBuffer.allocateDirect(codes * Integer.BYTES);
+        this.lengths = ByteBuffer.allocateDirect(codes * Integer.BYTES);
+        int slotCount = Integer.highestOneBit(codes * 2 - 1) << 1;
+        this.slots = ByteBuffer.allocateDirect(slotCount * Integer.BYTES);
+        this.slotMask = slotCount - 1;
+    }
+
+    int encode(String name) {
+        if (name == null) {
+            return NO_NAME;
+        }
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        int slot = hash(bytes) & slotMask;
+        while (true) {
+            int entry = slots.getInt(slot * Integer.BYTES);
+            if (entry == 0) {
+                break;
+            }
+            if (matches(entry - 1, bytes)) {
+                return entry - 1;
+            }
+            slot = (slot + 1) & slotMask;
+        }
+
+        int code = size++;
+        ensureCapacity(bytes.length);
+        arena.put(arenaUsed, bytes);
+        offsets.putInt(code * Integer.BYTES, arenaUsed);
+        lengths.putInt(code * Integer.BYTES, bytes.length);
+        arenaUsed += bytes.length;
+        slots.putInt(slot * Integer.BYTES, code + 1);
+        if (size * 2 > slotMask + 1) {
+            rehash();
+        }
+        return code;
+    }
+
+    String decode(int code) {
+        if (code == NO_NAME) {
+            return null;
+        }
+        byte[] bytes = new byte[lengths.getInt(code * Integer.BYTES)];
+        arena.get(offsets.getInt(code * Integer.BYTES), bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Orders by the unsigned UTF-8 bytes, i.e. by code point, without decoding either name.
+     */
+    int compare(int code, int otherCode) {
+        if (code == otherCode) {
+            return 0;
+        }
+        int offset = offsets.getInt(code * Integer.BYTES);
+        int length = lengths.getInt(code * Integer.BYTES);
+        int otherOffset = offsets.getInt(otherCode * Integer.BYTES);
+        int otherLength = lengths.getInt(otherCode * Integer.BYTES);
+        int common = Math.min(length, otherLength);
+        for (int i = 0; i < common; i++) {
+            int cmp = Byte.compareUnsigned(arena.get(offset + i), arena.get(otherOffset + i));
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return Integer.compare(length, otherLength);
+    }
+
+    int size() {
+        return size;
+    }
+
+    long offHeapBytes() {
+        return (long) arena.capacity() + offsets.capacity() + lengths.capacity() + slots.capacity();
+    }
+
+    private boolean matches(int code, byte[] bytes) {
+        if (lengths.getInt(code * Integer.BYTES) != bytes.length) {
+            return false;
+        }
+        int offset = offsets.getInt(code * Integer.BYTES);
+        for (int i = 0; i < bytes.length; i++) {
+            if (arena.get(offset + i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void ensureCapacity(int extraBytes) {
+        if (arenaUsed + extraBytes > arena.capacity()) {
+            arena = grow(arena, Math.max(arena.capacity() * 2L, (long) arenaUsed + extraBytes));
+        }
+        if (size * Integer.BYTES > offsets.capacity()) {
+            offsets = grow(offsets, offsets.capacity() * 2L);
+            lengths = grow(lengths, lengths.capacity() * 2L);
+        }
+    }
+
+    private void rehash() {
+        int slotCount = (slotMask + 1) * 2;
+        ByteBuffer rehashed = ByteBuffer.allocateDirect(slotCount * Integer.BYTES);
+        int mask = slotCount - 1;
+        for (int code = 0; code < size; code++) {
+            int slot = hash(code) & mask;
+            while (rehashed.getInt(slot * Integer.BYTES) != 0) {
+                slot = (slot + 1) & mask;
+            }
+            rehashed.putInt(slot * Integer.BYTES, code + 1);
+        }
+        slots = rehashed;
+        slotMask = mask;
+    }
+
+    private int hash(int code) {
+        int offset = offsets.getInt(code * Integer.BYTES);
+        int length = lengths.getInt(code * Integer.BYTES);
+        int hash = 0x811c9dc5;
+        for (int i = 0; i < length; i++) {
+            hash = (hash ^ (arena.get(offset + i) & 0xff)) * 0x01000193;
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    private static int hash(byte[] bytes) {
+        int hash = 0x811c9dc5;
+        for (byte b : bytes) {
+            hash = (hash ^ (b & 0xff)) * 0x01000193;
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    static ByteBuffer grow(ByteBuffer buffer, long capacity) {
+        if (capacity > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Off-heap product store is full");
+        }
+        ByteBuffer grown = ByteBuffer.allocateDirect((int) capacity);
+        grown.put(0, buffer, 0, buffer.capacity());
+        return grown;
+    }
+}
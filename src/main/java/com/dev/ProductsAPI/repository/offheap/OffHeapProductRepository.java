@@ -0,0 +1,93 @@
+package com.dev.ProductsAPI.repository.offheap;
+
+import com.dev.ProductsAPI.config.MetricsConfig;
+import com.dev.ProductsAPI.models.ProductModel;
+import com.dev.ProductsAPI.repository.ProductReader;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * {@link ProductReader} over the {@link OffHeapProductStore}, used as the replica when
+ * {@code products.replica.store=off-heap}. It is written by
+ * {@link com.dev.ProductsAPI.repository.secondary.ProductsReplica} like the H2 replica would be.
+ * Only created with that setting, so the H2 replica allocates no direct buffers.
+ */
+@Component
+@ConditionalOnProperty(name = "products.replica.store", havingValue = "off-heap")
+@Timed(MetricsConfig.REPOSITORY_TIMER)
+public class OffHeapProductRepository implements ProductReader {
+
+    private final OffHeapProductStore store;
+    private final ProjectionFactory projectionFactory = new SpelAwareProxyProjectionFactory();
+
+    public OffHeapProductRepository(@Value("${products.replica.off-heap.initial-capacity:65536}") int initialCapacity) {
+        this.store = new OffHeapProductStore(initialCapacity);
+    }
+
+    @Override
+    public Optional<ProductModel> findById(UUID id) {
+        return store.findById(id);
+    }
+
+    @Override
+    public List<ProductModel> findAllById(Iterable<UUID> ids) {
+        List<ProductModel> products = new ArrayList<>();
+        for (UUID id : ids) {
+            store.findById(id).ifPresent(products::add);
+        }
+        return products;
+    }
+
+    @Override
+    public Page<ProductModel> findAll(Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            List<ProductModel> products = store.slice(0, Integer.MAX_VALUE, pageable.getSortOr(Sort.unsorted()));
+            return new PageImpl<>(products);
+        }
+        List<ProductModel> products = store.slice(pageable.getOffset(), pageable.getPageSize(), pageable.getSort());
+        return new PageImpl<>(products, pageable, store.size());
+    }
+
+    /**
+     * The rows are materialized in full anyway, projecting only narrows what is serialized.
+     */
+    @Override
+    public <T> Optional<T> findProjectedByIdProduct(UUID idProduct, Class<T> type) {
+        return findById(idProduct).map(product -> projectionFactory.createProjection(type, product));
+    }
+
+    @Override
+    public <T> Page<T> findProjectedBy(Pageable pageable, Class<T> type) {
+        return findAll(pageable).map(product -> projectionFactory.createProjection(type, product));
+    }
+
+    public void upsertAll(Collection<ProductModel> products) {
+        store.upsertAll(products);
+    }
+
+    public void deleteAll(Collection<UUID> ids) {
+        store.deleteAll(ids);
+    }
+
+    public int size() {
+        return store.size();
+    }
+
+    public long offHeapBytes() {
+        return store.offHeapBytes();
+    }
+}
@@ -0,0 +1,389 @@
+package com.dev.ProductsAPI.repository.offheap;
+
+import com.dev.ProductsAPI.models.ProductModel;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Column-oriented product store held in direct buffers, so a large catalog costs about 40 bytes
+ * per product outside the Java heap instead of a full entity graph inside it. Each column is a
+ * primitive array: the id as two longs, the price as an unscaled long plus its scale, the name
+ * as a code into a {@link NameDictionary} and the row version as a long. Rows are found by id
+ * through an open-addressing index and {@link ProductModel}s are only materialized for the rows
+ * a read returns.
+ * <p>
+ * Deleting a row moves the last row into its place, so unsorted reads follow no particular order,
+ * the same as an unsorted query on the database.
+ */
+public final class OffHeapProductStore {
+
+    private static final byte NULL_SCALE = Byte.MIN_VALUE;
+    private static final long NULL_ROW_VERSION = -1;
+    private static final int MAX_SORTED_VIEWS = 8;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NameDictionary names;
+
+    private ByteBuffer idHigh;
+    private ByteBuffer idLow;
+    private ByteBuffer unscaledPrices;
+    private ByteBuffer priceScales;
+    private ByteBuffer nameCodes;
+    private ByteBuffer rowVersions;
+    private int capacity;
+    private int size;
+
+    // open addressing on the id, a slot holds row + 1 and 0 marks it empty
+    private ByteBuffer index;
+    private int indexMask;
+
+    // bumped by every write, a sorted view built for an older version is stale
+    private long version;
+    private final Map<Sort, SortedView> sortedViews = new ConcurrentHashMap<>();
+
+    private record SortedView(long version, int[] rows) { }
+
+    public OffHeapProductStore(int initialCapacity) {
+        this.capacity = Math.max(16, initialCapacity);
+        this.idHigh = ByteBuffer.allocateDirect(capacity * Long.BYTES);
+        this.idLow = ByteBuffer.allocateDirect(capacity * Long.BYTES);
+        this.unscaledPrices = ByteBuffer.allocateDirect(capacity * Long.BYTES);
+        this.priceScales = ByteBuffer.allocateDirect(capacity);
+        this.nameCodes = ByteBuffer.allocateDirect(capacity * Integer.BYTES);
+        this.rowVersions = ByteBuffer.allocateDirect(capacity * Long.BYTES);
+        int slotCount = Integer.highestOneBit(capacity * 2 - 1) << 1;
+        this.index = ByteBuffer.allocateDirect(slotCount * Integer.BYTES);
+        this.indexMask = slotCount - 1;
+        this.names = new NameDictionary(initialCapacity / 4);
+    }
+
+    /**
+     * Inserts or replaces the given products. The batch is checked before anything is written, so a
+     * product the store cannot hold leaves it unchanged.
+     *
+     * @throws IllegalArgumentException for a product without id, or a price whose unscaled value
+     *                                  does not fit in a long or whose scale does not fit in a byte
+     */
+    public void upsertAll(Collection<ProductModel> products) {
+        products.forEach(OffHeapProductStore::checkStorable);
+        lock.writeLock().lock();
+        try {
+            for (ProductModel product : products) {
+                UUID id = product.getIdProduct();
+                int row = findRow(id.getMostSignificantBits(), id.getLeastSignificantBits());
+                if (row < 0) {
+                    row = appendRow(id);
+                }
+                nameCodes.putInt(row * Integer.BYTES, names.encode(product.getName()));
+                BigDecimal value = product.getValue();
+                unscaledPrices.putLong(row * Long.BYTES, value == null ? 0 : value.unscaledValue().longValue());
+                priceScales.put(row, value == null ? NULL_SCALE : (byte) value.scale());
+                rowVersions.putLong(row * Long.BYTES, product.getVersion() == null ? NULL_ROW_VERSION : product.getVersion());
+            }
+            version++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void deleteAll(Collection<UUID> ids) {
+        lock.writeLock().lock();
+        try {
+            for (UUID id : ids) {
+                int slot = findSlot(id.getMostSignificantBits(), id.getLeastSignificantBits());
+                if (slot >= 0) {
+                    removeRow(slot);
+                }
+            }
+            version++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Optional<ProductModel> findById(UUID id) {
+        lock.readLock().lock();
+        try {
+            int row = findRow(id.getMostSignificantBits(), id.getLeastSignificantBits());
+            return row < 0 ? Optional.empty() : Optional.of(materialize(row));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Materializes at most {@code limit} products starting at {@code offset} in the given order.
+     * Sorting is supported on {@code idProduct}, {@code name} and {@code value}; the row order for
+     * a sort is computed once and reused until the next write.
+     *
+     * @throws IllegalArgumentException when the sort names another property
+     */
+    public List<ProductModel> slice(long offset, int limit, Sort sort) {
+        lock.readLock().lock();
+        try {
+            int from = (int) Math.min(offset, size);
+            int to = (int) Math.min((long) from + limit, size);
+            List<ProductModel> products = new ArrayList<>(to - from);
+            if (sort.isUnsorted()) {
+                for (int row = from; row < to; row++) {
+                    products.add(materialize(row));
+                }
+            } else {
+                int[] rows = sortedRows(sort);
+                for (int i = from; i < to; i++) {
+                    products.add(materialize(rows[i]));
+                }
+            }
+            return products;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long offHeapBytes() {
+        lock.readLock().lock();
+        try {
+            return (long) idHigh.capacity() + idLow.capacity() + unscaledPrices.capacity() + priceScales.capacity()
+                    + nameCodes.capacity() + rowVersions.capacity() + index.capacity() + names.offHeapBytes();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void checkStorable(ProductModel product) {
+        if (product.getIdProduct() == null) {
+            throw new IllegalArgumentException("Product without id cannot be stored off-heap");
+        }
+        BigDecimal value = product.getValue();
+        if (value != null && (value.unscaledValue().bitLength() >= Long.SIZE
+                || value.scale() <= NULL_SCALE || value.scale() > Byte.MAX_VALUE)) {
+            throw new IllegalArgumentException("Price " + value + " of product " + product.getIdProduct() + " cannot be stored off-heap");
+        }
+    }
+
+    private ProductModel materialize(int row) {
+        UUID id = new UUID(idHigh.getLong(row * Long.BYTES), idLow.getLong(row * Long.BYTES));
+        byte scale = priceScales.get(row);
+        BigDecimal value = scale == NULL_SCALE ? null : BigDecimal.valueOf(unscaledPrices.getLong(row * Long.BYTES), scale);
+        ProductModel product = new ProductModel(id, names.decode(nameCodes.getInt(row * Integer.BYTES)), value);
+        long rowVersion = rowVersions.getLong(row * Long.BYTES);
+        product.setVersion(rowVersion == NULL_ROW_VERSION ? null : rowVersion);
+        return product;
+    }
+
+    private int appendRow(UUID id) {
+        if (size == capacity) {
+            growColumns();
+        }
+        int row = size++;
+        idHigh.putLong(row * Long.BYTES, id.getMostSignificantBits());
+        idLow.putLong(row * Long.BYTES, id.getLeastSignificantBits());
+        if (size * 2 > indexMask + 1) {
+            rehash();
+        } else {
+            int slot = hash(id.getMostSignificantBits(), id.getLeastSignificantBits()) & indexMask;
+            while (index.getInt(slot * Integer.BYTES) != 0) {
+                slot = (slot + 1) & indexMask;
+            }
+            index.putInt(slot * Integer.BYTES, row + 1);
+        }
+        return row;
+    }
+
+    private void removeRow(int slot) {
+        int row = index.getInt(slot * Integer.BYTES) - 1;
+        clearSlot(slot);
+        int last = --size;
+        if (row == last) {
+            return;
+        }
+        long high = idHigh.getLong(last * Long.BYTES);
+        long low = idLow.getLong(last * Long.BYTES);
+        int lastSlot = findSlot(high, low);
+        idHigh.putLong(row * Long.BYTES, high);
+        idLow.putLong(row * Long.BYTES, low);
+        unscaledPrices.putLong(row * Long.BYTES, unscaledPrices.getLong(last * Long.BYTES));
+        priceScales.put(row, priceScales.get(last));
+        nameCodes.putInt(row * Integer.BYTES, nameCodes.getInt(last * Integer.BYTES));
+        rowVersions.putLong(row * Long.BYTES, rowVersions.getLong(last * Long.BYTES));
+        index.putInt(lastSlot * Integer.BYTES, row + 1);
+    }
+
+    /**
+     * Backward-shift deletion: later entries of the probe run move up so lookups never need
+     * tombstones.
+     */
+    private void clearSlot(int slot) {
+        int hole = slot;
+        int next = (slot + 1) & indexMask;
+        int entry;
+        while ((entry = index.getInt(next * Integer.BYTES)) != 0) {
+            int row = entry - 1;
+            int home = hash(idHigh.getLong(row * Long.BYTES), idLow.getLong(row * Long.BYTES)) & indexMask;
+            if (((next - home) & indexMask) >= ((next - hole) & indexMask)) {
+                index.putInt(hole * Integer.BYTES, entry);
+                hole = next;
+            }
+            next = (next + 1) & indexMask;
+        }
+        index.putInt(hole * Integer.BYTES, 0);
+    }
+
+    private int findRow(long high, long low) {
+        int slot = findSlot(high, low);
+        return slot < 0 ? -1 : index.getInt(slot * Integer.BYTES) - 1;
+    }
+
+    private int findSlot(long high, long low) {
+        int slot = hash(high, low) & indexMask;
+        int entry;
+        while ((entry = index.getInt(slot * Integer.BYTES)) != 0) {
+            int row = entry - 1;
+            if (idHigh.getLong(row * Long.BYTES) == high && idLow.getLong(row * Long.BYTES) == low) {
+                return slot;
+            }
+            slot = (slot + 1) & indexMask;
+        }
+        return -1;
+    }
+
+    private void growColumns() {
+        long grown = capacity * 2L;
+        idHigh = NameDictionary.grow(idHigh, grown * Long.BYTES);
+        idLow = NameDictionary.grow(idLow, grown * Long.BYTES);
+        unscaledPrices = NameDictionary.grow(unscaledPrices, grown * Long.BYTES);
+        priceScales = NameDictionary.grow(priceScales, grown);
+        nameCodes = NameDictionary.grow(nameCodes, grown * Integer.BYTES);
+        rowVersions = NameDictionary.grow(rowVersions, grown * Long.BYTES);
+        capacity = (int) grown;
+    }
+
+    private void rehash() {
+        int slotCount = (indexMask + 1) * 2;
+        ByteBuffer rehashed = ByteBuffer.allocateDirect(slotCount * Integer.BYTES);
+        int mask = slotCount - 1;
+        for (int row = 0; row < size; row++) {
+            int slot = hash(idHigh.getLong(row * Long.BYTES), idLow.getLong(row * Long.BYTES)) & mask;
+            while (rehashed.getInt(slot * Integer.BYTES) != 0) {
+                slot = (slot + 1) & mask;
+            }
+            rehashed.putInt(slot * Integer.BYTES, row + 1);
+        }
+        index = rehashed;
+        indexMask = mask;
+    }
+
+    private static int hash(long high, long low) {
+        long h = (high ^ Long.rotateLeft(low, 32)) * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private int[] sortedRows(Sort sort) {
+        SortedView view = sortedViews.get(sort);
+        if (view != null && view.version() == version) {
+            return view.rows();
+        }
+        List<Sort.Order> orders = sort.toList();
+        orders.forEach(order -> {
+            if (!List.of("idProduct", "name", "value").contains(order.getProperty())) {
+                throw new IllegalArgumentException("Cannot sort products by " + order.getProperty());
+            }
+        });
+        int[] rows = new int[size];
+        for (int row = 0; row < size; row++) {
+            rows[row] = row;
+        }
+        mergeSort(rows, new int[size], 0, size, orders);
+        if (sortedViews.size() >= MAX_SORTED_VIEWS) {
+            sortedViews.clear();
+        }
+        sortedViews.put(sort, new SortedView(version, rows));
+        return rows;
+    }
+
+    private void mergeSort(int[] rows, int[] scratch, int from, int to, List<Sort.Order> orders) {
+        if (to - from < 2) {
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        mergeSort(rows, scratch, from, middle, orders);
+        mergeSort(rows, scratch, middle, to, orders);
+        if (compareRows(rows[middle - 1], rows[middle], orders) <= 0) {
+            return;
+        }
+        System.arraycopy(rows, from, scratch, from, to - from);
+        int left = from;
+        int right = middle;
+        for (int i = from; i < to; i++) {
+            if (right >= to || (left < middle && compareRows(scratch[left], scratch[right], orders) <= 0)) {
+                rows[i] = scratch[left++];
+            } else {
+                rows[i] = scratch[right++];
+            }
+        }
+    }
+
+    private int compareRows(int row, int otherRow, List<Sort.Order> orders) {
+        for (Sort.Order order : orders) {
+            int cmp = switch (order.getProperty()) {
+                case "idProduct" -> compareIds(row, otherRow);
+                case "name" -> compareNames(row, otherRow);
+                default -> comparePrices(row, otherRow);
+            };
+            if (cmp != 0) {
+                return order.isAscending() ? cmp : -cmp;
+            }
+        }
+        return 0;
+    }
+
+    // unsigned, like PostgreSQL compares uuid values
+    private int compareIds(int row, int otherRow) {
+        int cmp = Long.compareUnsigned(idHigh.getLong(row * Long.BYTES), idHigh.getLong(otherRow * Long.BYTES));
+        return cmp != 0 ? cmp : Long.compareUnsigned(idLow.getLong(row * Long.BYTES), idLow.getLong(otherRow * Long.BYTES));
+    }
+
+    // a missing name or price sorts after every value, as in PostgreSQL
+    private int compareNames(int row, int otherRow) {
+        int code = nameCodes.getInt(row * Integer.BYTES);
+        int otherCode = nameCodes.getInt(otherRow * Integer.BYTES);
+        if (code == NameDictionary.NO_NAME || otherCode == NameDictionary.NO_NAME) {
+            return Boolean.compare(code == NameDictionary.NO_NAME, otherCode == NameDictionary.NO_NAME);
+        }
+        return names.compare(code, otherCode);
+    }
+
+    private int comparePrices(int row, int otherRow) {
+        byte scale = priceScales.get(row);
+        byte otherScale = priceScales.get(otherRow);
+        if (scale == NULL_SCALE || otherScale == NULL_SCALE) {
+            return Boolean.compare(scale == NULL_SCALE, otherScale == NULL_SCALE);
+        }
+        long unscaled = unscaledPrices.getLong(row * Long.BYTES);
+        long otherUnscaled = unscaledPrices.getLong(otherRow * Long.BYTES);
+        if (scale == otherScale) {
+            return Long.compare(unscaled, otherUnscaled);
+        }
+        return BigDecimal.valueOf(unscaled, scale).compareTo(BigDecimal.valueOf(otherUnscaled, otherScale));
+    }
+}
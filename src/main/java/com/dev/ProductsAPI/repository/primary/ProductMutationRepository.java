@@ -0,0 +1,209 @@
+package com.dev.ProductsAPI.repository.primary;
+
+import com.dev.ProductsAPI.config.MetricsConfig;
+import com.dev.ProductsAPI.dtos.ProductPatchDto;
+import com.dev.ProductsAPI.dtos.ProductRefDto;
+import com.dev.ProductsAPI.models.ProductModel;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Updates and deletes a product in one statement each, instead of loading the entity first. With
+ * an expected version the statement only matches while the row still has it, so a writer that
+ * read an older version changes nothing; whether a row matched comes back from the same statement.
+ * Bulk updates and deletes work the same way with the rows passed as arrays, one statement per chunk.
+ */
+@Repository
+@Timed(MetricsConfig.REPOSITORY_TIMER)
+public class ProductMutationRepository {
+
+    private static final String UPDATE_SQL = """
+            UPDATE "tb products" SET name = ?, value = ?, version = version + 1
+            WHERE id_product = ? RETURNING version""";
+    private static final String UPDATE_VERSION_SQL = """
+            UPDATE "tb products" SET name = ?, value = ?, version = version + 1
+            WHERE id_product = ? AND version = ? RETURNING version""";
+    private static final String DELETE_SQL = "DELETE FROM \"tb products\" WHERE id_product = ?";
+    private static final String DELETE_VERSION_SQL = "DELETE FROM \"tb products\" WHERE id_product = ? AND version = ?";
+    private static final String UPDATE_ALL_SQL = """
+            UPDATE "tb products" AS p
+            SET name = coalesce(u.name, p.name), value = coalesce(u.value, p.value), version = p.version + 1
+            FROM unnest(?::uuid[], ?::varchar[], ?::numeric[], ?::bigint[]) AS u(id_product, name, value, version)
+            WHERE p.id_product = u.id_product AND (u.version IS NULL OR p.version = u.version)
+            RETURNING p.id_product, p.external_id, p.name, p.value, p.version""";
+    private static final String DELETE_ALL_SQL = """
+            DELETE FROM "tb products" AS p
+            USING unnest(?::uuid[], ?::bigint[]) AS d(id_product, version)
+            WHERE p.id_product = d.id_product AND (d.version IS NULL OR p.version = d.version)
+            RETURNING p.id_product""";
+    private static final String EXISTING_IDS_SQL = "SELECT id_product FROM \"tb products\" WHERE id_product = ANY(?::uuid[])";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final int chunkSize;
+
+    @Autowired
+    public ProductMutationRepository(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                     @Qualifier("primaryTransactionManager") PlatformTransactionManager transactionManager,
+                                     @Qualifier("primaryEntityManagerFactory") EntityManagerFactory entityManagerFactory,
+                                     @Value("${products.bulk.chunk-size:500}") int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("products.bulk.chunk-size must be positive");
+        }
+        this.jdbcTemplate = new JdbcTemplate(primaryDataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManagerFactory = entityManagerFactory;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Writes the name and value of the product and bumps its version, when {@code expectedVersion}
+     * is not null only if the row is still at that version.
+     *
+     * @return the new version, or empty when no row matched
+     */
+    public OptionalLong update(ProductModel product, Long expectedVersion) {
+        List<Long> versions = expectedVersion == null
+                ? jdbcTemplate.queryForList(UPDATE_SQL, Long.class, product.getName(), product.getValue(), product.getIdProduct())
+                : jdbcTemplate.queryForList(UPDATE_VERSION_SQL, Long.class, product.getName(), product.getValue(), product.getIdProduct(), expectedVersion);
+        if (versions.isEmpty()) {
+            return OptionalLong.empty();
+        }
+        evict(product.getIdProduct());
+        return OptionalLong.of(versions.get(0));
+    }
+
+    /**
+     * Deletes the product, when {@code expectedVersion} is not null only if the row is still at
+     * that version.
+     *
+     * @return whether a row was deleted
+     */
+    public boolean delete(UUID id, Long expectedVersion) {
+        int deleted = expectedVersion == null
+                ? jdbcTemplate.update(DELETE_SQL, id)
+                : jdbcTemplate.update(DELETE_VERSION_SQL, id, expectedVersion);
+        if (deleted == 0) {
+            return false;
+        }
+        evict(id);
+        return true;
+    }
+
+    /**
+     * Applies every patch in one transaction, as one statement per chunk. A patch with a version
+     * only applies while the row is still at that version. The ids must be distinct.
+     *
+     * @return the rows that were updated, as they are now
+     */
+    public List<ProductModel> updateAll(List<ProductPatchDto> patches) {
+        List<ProductModel> updated = new ArrayList<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int offset = 0; offset < patches.size(); offset += chunkSize) {
+                List<ProductPatchDto> chunk = patches.subList(offset, Math.min(offset + chunkSize, patches.size()));
+                jdbcTemplate.query(connection -> prepareUpdateAll(connection, chunk), rs -> {
+                    ProductModel product = new ProductModel(rs.getObject("id_product", UUID.class), rs.getString("name"), rs.getBigDecimal("value"));
+                    product.setExternalId(rs.getObject("external_id", Long.class));
+                    product.setVersion(rs.getLong("version"));
+                    updated.add(product);
+                });
+            }
+        });
+        updated.forEach(product -> evict(product.getIdProduct()));
+        return updated;
+    }
+
+    /**
+     * Deletes the products in one transaction, as one statement per chunk. A product with a version
+     * is only deleted while the row is still at that version.
+     *
+     * @return the ids of the rows that were deleted
+     */
+    public List<UUID> deleteAll(List<ProductRefDto> products) {
+        List<UUID> deleted = new ArrayList<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int offset = 0; offset < products.size(); offset += chunkSize) {
+                List<ProductRefDto> chunk = products.subList(offset, Math.min(offset + chunkSize, products.size()));
+                jdbcTemplate.query(connection -> prepareDeleteAll(connection, chunk),
+                        rs -> { deleted.add(rs.getObject("id_product", UUID.class)); });
+            }
+        });
+        deleted.forEach(this::evict);
+        return deleted;
+    }
+
+    /**
+     * Which of the ids have a product, one statement per chunk.
+     */
+    public Set<UUID> findExistingIds(Collection<UUID> ids) {
+        List<UUID> distinct = List.copyOf(new HashSet<>(ids));
+        Set<UUID> existing = new HashSet<>();
+        for (int offset = 0; offset < distinct.size(); offset += chunkSize) {
+            List<UUID> chunk = distinct.subList(offset, Math.min(offset + chunkSize, distinct.size()));
+            jdbcTemplate.query(connection -> {
+                PreparedStatement ps = connection.prepareStatement(EXISTING_IDS_SQL);
+                ps.setArray(1, connection.createArrayOf("uuid", chunk.toArray(new UUID[0])));
+                return ps;
+            }, rs -> { existing.add(rs.getObject("id_product", UUID.class)); });
+        }
+        return existing;
+    }
+
+    private static PreparedStatement prepareUpdateAll(Connection connection, List<ProductPatchDto> chunk) throws SQLException {
+        UUID[] ids = new UUID[chunk.size()];
+        String[] names = new String[chunk.size()];
+        BigDecimal[] values = new BigDecimal[chunk.size()];
+        Long[] versions = new Long[chunk.size()];
+        for (int i = 0; i < chunk.size(); i++) {
+            ids[i] = chunk.get(i).idProduct();
+            names[i] = chunk.get(i).name();
+            values[i] = chunk.get(i).value();
+            versions[i] = chunk.get(i).version();
+        }
+        PreparedStatement ps = connection.prepareStatement(UPDATE_ALL_SQL);
+        ps.setArray(1, connection.createArrayOf("uuid", ids));
+        ps.setArray(2, connection.createArrayOf("varchar", names));
+        ps.setArray(3, connection.createArrayOf("numeric", values));
+        ps.setArray(4, connection.createArrayOf("bigint", versions));
+        return ps;
+    }
+
+    private static PreparedStatement prepareDeleteAll(Connection connection, List<ProductRefDto> chunk) throws SQLException {
+        UUID[] ids = new UUID[chunk.size()];
+        Long[] versions = new Long[chunk.size()];
+        for (int i = 0; i < chunk.size(); i++) {
+            ids[i] = chunk.get(i).idProduct();
+            versions[i] = chunk.get(i).version();
+        }
+        PreparedStatement ps = connection.prepareStatement(DELETE_ALL_SQL);
+        ps.setArray(1, connection.createArrayOf("uuid", ids));
+        ps.setArray(2, connection.createArrayOf("bigint", versions));
+        return ps;
+    }
+
+    // the row was written behind Hibernate's back, drop its stale second-level cache entry
+    private void evict(UUID id) {
+        entityManagerFactory.getCache().evict(ProductModel.class, id);
+    }
+}
@@ -1,9 +1,83 @@
 package com.dev.ProductsAPI.repository.primary;
 
 import com.dev.ProductsAPI.models.ProductModel;
+import com.dev.ProductsAPI.repository.ProductReader;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
-public interface ProductRepository extends JpaRepository<ProductModel, UUID> {
+public interface ProductRepository extends JpaRepository<ProductModel, UUID>, JpaSpecificationExecutor<ProductModel>, ProductReader {
+
+    @Override
+    Optional<ProductModel> findById(UUID id);
+
+    @Override
+    List<ProductModel> findAllById(Iterable<UUID> ids);
+
+    @Override
+    Page<ProductModel> findAll(Pageable pageable);
+
+    @Override
+    <T> Optional<T> findProjectedByIdProduct(UUID idProduct, Class<T> type);
+
+    @Override
+    <T> Page<T> findProjectedBy(Pageable pageable, Class<T> type);
+
+    /**
+     * Walks the whole table through a server-side cursor. Must be consumed inside a transaction
+     * (PostgreSQL only honours the fetch size with auto-commit off) and closed afterwards.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select p from ProductModel p")
+    Stream<ProductModel> streamAll();
+
+    List<ProductModel> findByOrderByNameAscIdProductAsc(Limit limit);
+
+    /**
+     * Keyset (seek) page: the rows strictly after the given (name, idProduct) position, so the
+     * database seeks on the ordering instead of scanning and discarding an offset.
+     */
+    @Query("select p from ProductModel p where (p.name, p.idProduct) > (:name, :idProduct) order by p.name, p.idProduct")
+    List<ProductModel> findPageAfter(@Param("name") String name, @Param("idProduct") UUID idProduct, Limit limit);
+
+    /**
+     * The products without a name, which sort after all named ones, for the keyset pages that
+     * reach them.
+     */
+    List<ProductModel> findByNameIsNullOrderByIdProductAsc(Limit limit);
+
+    List<ProductModel> findByNameIsNullAndIdProductGreaterThanOrderByIdProductAsc(UUID idProduct, Limit limit);
+
+    /**
+     * Batches for copying the table in primary key order. Rows bypass the second-level cache so a
+     * full copy does not evict the hot entries.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("select p from ProductModel p where p.idProduct > :idProduct order by p.idProduct")
+    List<ProductModel> findBatchAfter(@Param("idProduct") UUID idProduct, Limit limit);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("select p from ProductModel p order by p.idProduct")
+    List<ProductModel> findFirstBatch(Limit limit);
 }
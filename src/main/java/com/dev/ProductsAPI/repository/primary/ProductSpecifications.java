@@ -0,0 +1,41 @@
+package com.dev.ProductsAPI.repository.primary;
+
+import com.dev.ProductsAPI.models.ProductModel;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+
+/**
+ * Filters for {@link ProductRepository#findAll(Specification, org.springframework.data.domain.Pageable)}.
+ * Each one maps to a sargable predicate on an indexed column, so PostgreSQL can answer it with an
+ * index scan (see {@code V3__add_products_query_indexes.sql}). A {@code null} argument means no filter.
+ */
+public final class ProductSpecifications {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private ProductSpecifications() {
+    }
+
+    public static Specification<ProductModel> nameStartsWith(String prefix) {
+        if (prefix == null || prefix.isEmpty()) {
+            return null;
+        }
+        String pattern = prefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        return (root, query, criteriaBuilder) -> criteriaBuilder.like(root.get("name"), pattern, LIKE_ESCAPE);
+    }
+
+    public static Specification<ProductModel> valueAtLeast(BigDecimal minValue) {
+        if (minValue == null) {
+            return null;
+        }
+        return (root, query, criteriaBuilder) -> criteriaBuilder.greaterThanOrEqualTo(root.get("value"), minValue);
+    }
+
+    public static Specification<ProductModel> valueAtMost(BigDecimal maxValue) {
+        if (maxValue == null) {
+            return null;
+        }
+        return (root, query, criteriaBuilder) -> criteriaBuilder.lessThanOrEqualTo(root.get("value"), maxValue);
+    }
+}
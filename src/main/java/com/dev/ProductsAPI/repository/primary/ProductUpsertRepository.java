@@ -0,0 +1,133 @@
+package com.dev.ProductsAPI.repository.primary;
+
+import com.dev.ProductsAPI.models.ProductModel;
+import com.dev.ProductsAPI.config.MetricsConfig;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.IntConsumer;
+
+/**
+ * Imports products keyed by their fake store id with {@code INSERT ... ON CONFLICT DO UPDATE}, one
+ * statement per batch with the rows passed as arrays. A row whose name and value did not change is
+ * not updated, so it writes no new tuple version and fires no change log trigger; only inserted and
+ * updated rows come back from the database.
+ */
+@Repository
+@Timed(MetricsConfig.REPOSITORY_TIMER)
+public class ProductUpsertRepository {
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO "tb products" AS p (id_product, external_id, name, value)
+            SELECT * FROM unnest(?::uuid[], ?::bigint[], ?::varchar[], ?::numeric[])
+            ON CONFLICT (external_id) DO UPDATE SET name = EXCLUDED.name, value = EXCLUDED.value, version = p.version + 1
+            WHERE (p.name, p.value) IS DISTINCT FROM (EXCLUDED.name, EXCLUDED.value)
+            RETURNING p.id_product, p.external_id, p.name, p.value, p.version, (p.xmax = 0) AS inserted""";
+
+    /**
+     * Rows written by an upsert, with their ids in the database, and how many of the distinct external
+     * ids were left as they were; duplicates collapsed before the write are not counted.
+     */
+    public record UpsertResult(List<ProductModel> inserted, List<ProductModel> updated, int unchanged) { }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final int batchSize;
+
+    @Autowired
+    public ProductUpsertRepository(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                   @Qualifier("primaryTransactionManager") PlatformTransactionManager transactionManager,
+                                   @Qualifier("primaryEntityManagerFactory") EntityManagerFactory entityManagerFactory,
+                                   @Value("${products.upsert.batch-size:500}") int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("products.upsert.batch-size must be positive");
+        }
+        this.jdbcTemplate = new JdbcTemplate(primaryDataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManagerFactory = entityManagerFactory;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Upserts all products in one transaction. Every product needs an external id; when several
+     * share one, the last of them is kept.
+     */
+    public UpsertResult upsertAll(List<ProductModel> products) {
+        return upsertAll(products, rows -> { });
+    }
+
+    /**
+     * Same as {@link #upsertAll(List)}, calling {@code onBatch} with the number of products of
+     * every batch written. The rows are only visible to others once all batches are committed.
+     */
+    public UpsertResult upsertAll(List<ProductModel> products, IntConsumer onBatch) {
+        Map<Long, ProductModel> byExternalId = new LinkedHashMap<>();
+        for (ProductModel product : products) {
+            if (product.getExternalId() == null) {
+                throw new IllegalArgumentException("Cannot upsert a product without external id: " + product.getName());
+            }
+            byExternalId.put(product.getExternalId(), product);
+        }
+        List<ProductModel> distinct = new ArrayList<>(byExternalId.values());
+
+        List<ProductModel> inserted = new ArrayList<>();
+        List<ProductModel> updated = new ArrayList<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int offset = 0; offset < distinct.size(); offset += batchSize) {
+                List<ProductModel> batch = distinct.subList(offset, Math.min(offset + batchSize, distinct.size()));
+                upsertBatch(batch, inserted, updated);
+                onBatch.accept(batch.size());
+            }
+        });
+        // the rows were written behind Hibernate's back, drop their stale second-level cache entries
+        updated.forEach(product -> entityManagerFactory.getCache().evict(ProductModel.class, product.getIdProduct()));
+        return new UpsertResult(inserted, updated, distinct.size() - inserted.size() - updated.size());
+    }
+
+    private void upsertBatch(List<ProductModel> batch, List<ProductModel> inserted, List<ProductModel> updated) {
+        jdbcTemplate.query(connection -> prepareUpsert(connection, batch), rs -> {
+            ProductModel product = new ProductModel(rs.getObject("id_product", UUID.class), rs.getString("name"), rs.getBigDecimal("value"));
+            product.setExternalId(rs.getLong("external_id"));
+            product.setVersion(rs.getLong("version"));
+            (rs.getBoolean("inserted") ? inserted : updated).add(product);
+        });
+    }
+
+    private static PreparedStatement prepareUpsert(Connection connection, List<ProductModel> batch) throws SQLException {
+        UUID[] ids = new UUID[batch.size()];
+        Long[] externalIds = new Long[batch.size()];
+        String[] names = new String[batch.size()];
+        BigDecimal[] values = new BigDecimal[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            // only used when the row is inserted, an existing row keeps its id
+            ids[i] = UUID.randomUUID();
+            externalIds[i] = batch.get(i).getExternalId();
+            names[i] = batch.get(i).getName();
+            values[i] = batch.get(i).getValue();
+        }
+        PreparedStatement ps = connection.prepareStatement(UPSERT_SQL);
+        ps.setArray(1, connection.createArrayOf("uuid", ids));
+        ps.setArray(2, connection.createArrayOf("bigint", externalIds));
+        ps.setArray(3, connection.createArrayOf("varchar", names));
+        ps.setArray(4, connection.createArrayOf("numeric", values));
+        return ps;
+    }
+}
@@ -1,9 +1,29 @@
 package com.dev.ProductsAPI.repository.secondary;
 
 import com.dev.ProductsAPI.models.ProductModel;
+import com.dev.ProductsAPI.repository.ProductReader;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
-public interface ProductsMemoryRepository extends JpaRepository <ProductModel, UUID>{
+public interface ProductsMemoryRepository extends JpaRepository <ProductModel, UUID>, ProductReader {
+
+    @Override
+    Optional<ProductModel> findById(UUID id);
+
+    @Override
+    List<ProductModel> findAllById(Iterable<UUID> ids);
+
+    @Override
+    Page<ProductModel> findAll(Pageable pageable);
+
+    @Override
+    <T> Optional<T> findProjectedByIdProduct(UUID idProduct, Class<T> type);
+
+    @Override
+    <T> Page<T> findProjectedBy(Pageable pageable, Class<T> type);
 }
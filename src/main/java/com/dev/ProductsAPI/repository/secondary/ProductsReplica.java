@@ -0,0 +1,142 @@
+package com.dev.ProductsAPI.repository.secondary;
+
+import com.dev.ProductsAPI.config.MetricsConfig;
+import com.dev.ProductsAPI.models.ProductModel;
+import com.dev.ProductsAPI.repository.offheap.OffHeapProductRepository;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write side of the in-memory replica, kept either in H2 or in the off-heap column store
+ * depending on {@code products.replica.store}. Rows are written with their primary key so the
+ * replica always holds the same ids as PostgreSQL (a JPA merge would hand out new ones).
+ * A failed write marks the replica as stale and reads fall back to the primary until the
+ * change sync has caught up past the failure.
+ */
+@Component
+public class ProductsReplica {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductsReplica.class);
+
+    private static final String UPSERT_SQL =
+            "MERGE INTO \"tb products\" (\"id_product\", \"name\", \"value\", \"version\") KEY (\"id_product\") VALUES (?, ?, ?, ?)";
+    private static final String DELETE_SQL =
+            "DELETE FROM \"tb products\" WHERE \"id_product\" = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OffHeapProductRepository offHeapProductRepository;
+    private final ReplicaStore store;
+    private final AtomicBoolean loaded = new AtomicBoolean(false);
+    private final AtomicLong failedWrites = new AtomicLong();
+    private final AtomicLong repairedWrites = new AtomicLong();
+
+    @Autowired
+    public ProductsReplica(@Qualifier("secondaryDataSource") DataSource secondaryDataSource,
+                           @Qualifier("secondaryTransactionManager") PlatformTransactionManager secondaryTransactionManager,
+                           Optional<OffHeapProductRepository> offHeapProductRepository,
+                           @Value("${products.replica.store:h2}") ReplicaStore store) {
+        this.jdbcTemplate = new JdbcTemplate(secondaryDataSource);
+        this.transactionTemplate = new TransactionTemplate(secondaryTransactionManager);
+        this.offHeapProductRepository = store != ReplicaStore.OFF_HEAP ? null : offHeapProductRepository.orElseThrow(() ->
+                new IllegalStateException("products.replica.store=off-heap needs the off-heap product repository"));
+        this.store = store;
+    }
+
+    @Timed(MetricsConfig.REPOSITORY_TIMER)
+    public boolean upsertAll(Collection<ProductModel> products) {
+        if (products.isEmpty()) {
+            return true;
+        }
+        if (store == ReplicaStore.OFF_HEAP) {
+            return write("upsert", () -> offHeapProductRepository.upsertAll(products));
+        }
+        return write("upsert", () -> transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate(UPSERT_SQL, products, products.size(), (ps, product) -> {
+                    ps.setObject(1, product.getIdProduct());
+                    ps.setString(2, product.getName());
+                    ps.setBigDecimal(3, product.getValue());
+                    ps.setObject(4, product.getVersion());
+                })));
+    }
+
+    @Timed(MetricsConfig.REPOSITORY_TIMER)
+    public boolean upsert(ProductModel product) {
+        return upsertAll(List.of(product));
+    }
+
+    @Timed(MetricsConfig.REPOSITORY_TIMER)
+    public boolean deleteAll(Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return true;
+        }
+        if (store == ReplicaStore.OFF_HEAP) {
+            return write("delete", () -> offHeapProductRepository.deleteAll(ids));
+        }
+        return write("delete", () -> transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate(DELETE_SQL, ids, ids.size(), (ps, id) -> ps.setObject(1, id))));
+    }
+
+    @Timed(MetricsConfig.REPOSITORY_TIMER)
+    public boolean delete(UUID id) {
+        return deleteAll(List.of(id));
+    }
+
+    /**
+     * The replica only serves reads once it has been fully loaded and no write-through has been lost since.
+     */
+    public boolean isReadable() {
+        return loaded.get() && failedWrites.get() == repairedWrites.get();
+    }
+
+    public ReplicaStore getStore() {
+        return store;
+    }
+
+    public boolean isLoaded() {
+        return loaded.get();
+    }
+
+    public void markLoaded() {
+        loaded.set(true);
+    }
+
+    /**
+     * Number of failed writes so far; pass it to {@link #markRepaired(long)} once every change
+     * made before this call has been re-applied.
+     */
+    public long failedWriteCount() {
+        return failedWrites.get();
+    }
+
+    public void markRepaired(long failedWriteCount) {
+        repairedWrites.accumulateAndGet(failedWriteCount, Math::max);
+    }
+
+    private boolean write(String operation, Runnable statement) {
+        try {
+            statement.run();
+            return true;
+        } catch (RuntimeException e) {
+            failedWrites.incrementAndGet();
+            logger.error("Replica {} failed, reads fall back to the primary database: {}", operation, e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.dev.ProductsAPI.repository.secondary;
+
+/**
+ * Where the read replica keeps its copy of the catalog: the H2 in-memory database, or the
+ * off-heap column store when the catalog is too large to keep on the Java heap.
+ */
+public enum ReplicaStore {
+    H2,
+    OFF_HEAP
+}
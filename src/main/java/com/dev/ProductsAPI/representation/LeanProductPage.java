@@ -0,0 +1,16 @@
+package com.dev.ProductsAPI.representation;
+
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+/**
+ * A page of products or product projections in the lean media type: the content and the page
+ * metadata, without links.
+ */
+public record LeanProductPage(List<?> content, int number, int size, long totalElements, int totalPages) {
+
+    public static LeanProductPage of(Page<?> page) {
+        return new LeanProductPage(page.getContent(), page.getNumber(), page.getSize(), page.getTotalElements(), page.getTotalPages());
+    }
+}
@@ -0,0 +1,21 @@
+package com.dev.ProductsAPI.representation;
+
+/**
+ * A link path with one template variable, split around it once so that expanding it is a string
+ * concatenation.
+ */
+record LinkTemplate(String prefix, String suffix) {
+
+    static LinkTemplate of(String path) {
+        int start = path.indexOf('{');
+        int end = path.indexOf('}', start + 1);
+        if (start < 0 || end < 0 || path.indexOf('{', end) >= 0) {
+            throw new IllegalArgumentException("Not a link template with one variable: " + path);
+        }
+        return new LinkTemplate(path.substring(0, start), path.substring(end + 1));
+    }
+
+    String expand(String baseUri, Object value) {
+        return baseUri + prefix + value + suffix;
+    }
+}
@@ -0,0 +1,104 @@
+package com.dev.ProductsAPI.representation;
+
+import com.dev.ProductsAPI.models.ProductModel;
+import com.dev.ProductsAPI.projections.ProductFieldSet;
+import com.dev.ProductsAPI.projections.ProductIdView;
+import org.springframework.data.domain.Page;
+
+import java.util.Locale;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Strong ETags of the product representations. A product's tag is its version, a page's tag a hash
+ * of the id and version of every product on it and of the page metadata, so both can be computed
+ * from a projection of ids and versions without loading or serializing the products. Each
+ * representation (HAL or lean, and the sparse fieldset) has its own tag, since their bodies differ.
+ */
+public final class ProductETags {
+
+    // the plain JSON a write answers with
+    public static final String JSON_VARIANT = "json";
+
+    private ProductETags() {
+    }
+
+    public static String variant(String accept, ProductFieldSet fields) {
+        String mediaType = ProductMediaTypes.isLeanRequested(accept) ? "lean" : "hal";
+        return fields == null ? mediaType : mediaType + "-" + fields.name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * The tag of a product at {@code version}, e.g. {@code "4.hal"}; null when the version is unknown.
+     */
+    public static String ofProduct(Long version, String variant) {
+        return version == null ? null : "\"" + version + "." + variant + "\"";
+    }
+
+    public static String ofProductPage(Page<ProductModel> page, String variant) {
+        return ofPage(page, ProductModel::getIdProduct, ProductModel::getVersion, variant);
+    }
+
+    public static String ofViewPage(Page<? extends ProductIdView> page, String variant) {
+        return ofPage(page, ProductIdView::getIdProduct, ProductIdView::getVersion, variant);
+    }
+
+    /**
+     * Whether an {@code If-None-Match} header matches the tag, by the weak comparison the header
+     * is defined with.
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || (tag.startsWith("W/") ? tag.substring(2) : tag).equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static boolean isAny(String ifMatch) {
+        return ifMatch.trim().equals("*");
+    }
+
+    /**
+     * The version named by the strong product tag of an {@code If-Match} header, empty when the
+     * header holds anything else: a weak tag, a list, or a tag this API did not hand out.
+     */
+    public static OptionalLong versionOf(String ifMatch) {
+        String tag = ifMatch.trim();
+        if (tag.length() < 2 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            return OptionalLong.empty();
+        }
+        String opaque = tag.substring(1, tag.length() - 1);
+        if (opaque.indexOf('"') >= 0) {
+            return OptionalLong.empty();
+        }
+        int dot = opaque.indexOf('.');
+        try {
+            return OptionalLong.of(Long.parseLong(dot < 0 ? opaque : opaque.substring(0, dot)));
+        } catch (NumberFormatException e) {
+            return OptionalLong.empty();
+        }
+    }
+
+    private static <T> String ofPage(Page<? extends T> page, Function<T, UUID> idProduct, Function<T, Long> version, String variant) {
+        long hash = mix(mix(mix(0, page.getNumber()), page.getSize()), page.getTotalElements());
+        for (T product : page.getContent()) {
+            UUID id = idProduct.apply(product);
+            Long productVersion = version.apply(product);
+            hash = mix(mix(mix(hash, id.getMostSignificantBits()), id.getLeastSignificantBits()),
+                    productVersion == null ? -1 : productVersion);
+        }
+        return "\"" + Long.toHexString(hash) + "." + variant + "\"";
+    }
+
+    // splitmix64 finalizer over the running hash, so every input bit reaches the whole tag
+    private static long mix(long hash, long value) {
+        long z = hash ^ value;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return (z ^ (z >>> 31)) + 0x9E3779B97F4A7C15L;
+    }
+}
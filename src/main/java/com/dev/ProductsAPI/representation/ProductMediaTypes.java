@@ -0,0 +1,31 @@
+package com.dev.ProductsAPI.representation;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+/**
+ * The lean product media type: plain JSON without any links, for high-volume internal clients
+ * that do not follow them. HAL stays the default for every other {@code Accept} header.
+ */
+public final class ProductMediaTypes {
+
+    public static final String LEAN_JSON_VALUE = "application/vnd.products.lean+json";
+    public static final MediaType LEAN_JSON = MediaType.parseMediaType(LEAN_JSON_VALUE);
+
+    private ProductMediaTypes() {
+    }
+
+    /**
+     * Whether the lean type is asked for by name, a wildcard alone keeps HAL.
+     */
+    public static boolean isLeanRequested(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return false;
+        }
+        try {
+            return MediaType.parseMediaTypes(accept).stream().anyMatch(LEAN_JSON::equalsTypeAndSubtype);
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
+}
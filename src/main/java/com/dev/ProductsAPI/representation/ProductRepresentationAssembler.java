@@ -0,0 +1,108 @@
+package com.dev.ProductsAPI.representation;
+
+import com.dev.ProductsAPI.controllers.ProductController;
+import com.dev.ProductsAPI.dtos.ProductKeysetPage;
+import com.dev.ProductsAPI.models.ProductModel;
+import com.dev.ProductsAPI.projections.ProductIdView;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+/**
+ * Renders products as HAL. Products are wrapped in an {@link EntityModel} instead of carrying links
+ * themselves, so an entity that is cached or managed never collects any. The self link of every
+ * product is expanded from a template resolved once from the {@link ProductController} mapping:
+ * a page looks up the base URI of the current request once and then only concatenates, where
+ * {@code linkTo(methodOn(...))} would proxy the controller and template a URI for every product.
+ * The links of the response itself still go through {@code linkTo}, they are a couple per response.
+ */
+@Component
+public class ProductRepresentationAssembler {
+
+    private final LinkTemplate productTemplate;
+
+    @Autowired
+    PagedResourcesAssembler<ProductModel> assembler;
+
+    @Autowired
+    PagedResourcesAssembler<ProductIdView> viewAssembler;
+
+    public ProductRepresentationAssembler() {
+        // outside of a request the link is relative to the servlet mapping, which is what the
+        // base URI is prepended to; the optional request parameters ({?fields}) are left out of
+        // the self links
+        String href = linkTo(methodOn(ProductController.class).getOneProduct(null, null, null, null)).withSelfRel().getHref();
+        int requestParameters = href.indexOf("{?");
+        if (requestParameters >= 0) {
+            href = href.substring(0, requestParameters);
+        }
+        this.productTemplate = LinkTemplate.of(UriComponentsBuilder.fromUriString(href).build().getPath());
+    }
+
+    public PagedModel<EntityModel<ProductModel>> toPagedModel(Page<ProductModel> page) {
+        String baseUri = currentBaseUri();
+        return assembler.toModel(page, product -> toModel(product, product.getIdProduct(), baseUri));
+    }
+
+    public PagedModel<EntityModel<ProductIdView>> toPagedViewModel(Page<ProductIdView> page) {
+        String baseUri = currentBaseUri();
+        return viewAssembler.toModel(page, view -> toModel(view, view.getIdProduct(), baseUri));
+    }
+
+    public CollectionModel<EntityModel<ProductModel>> toKeysetModel(ProductKeysetPage page, String after) {
+        String baseUri = currentBaseUri();
+        List<EntityModel<ProductModel>> content = page.content().stream()
+                .map(product -> toModel(product, product.getIdProduct(), baseUri))
+                .toList();
+
+        CollectionModel<EntityModel<ProductModel>> collectionModel = CollectionModel.of(content,
+                linkTo(methodOn(ProductController.class).getProductsAfter(after == null ? "" : after, page.size(), null)).withSelfRel());
+        if (page.next() != null) {
+            collectionModel.add(linkTo(methodOn(ProductController.class).getProductsAfter(page.next(), page.size(), null)).withRel(IanaLinkRelations.NEXT));
+        }
+        return collectionModel;
+    }
+
+    public EntityModel<ProductModel> toModel(ProductModel product) {
+        return toModel(product, product.getIdProduct(), currentBaseUri()).add(productsListLink());
+    }
+
+    public EntityModel<ProductIdView> toViewModel(ProductIdView view) {
+        return toModel(view, view.getIdProduct(), currentBaseUri()).add(productsListLink());
+    }
+
+    private <T> EntityModel<T> toModel(T content, UUID idProduct, String baseUri) {
+        return EntityModel.of(content, Link.of(productTemplate.expand(baseUri, idProduct)));
+    }
+
+    private static Link productsListLink() {
+        return linkTo(methodOn(ProductController.class).getAllProducts(Pageable.unpaged(), null, null, null)).withRel("Products List:");
+    }
+
+    /**
+     * The same base URI {@code linkTo} builds its links on: the servlet mapping of the current
+     * request, or none outside of one.
+     */
+    private static String currentBaseUri() {
+        if (RequestContextHolder.getRequestAttributes() == null) {
+            return "";
+        }
+        return ServletUriComponentsBuilder.fromCurrentServletMapping().toUriString();
+    }
+}
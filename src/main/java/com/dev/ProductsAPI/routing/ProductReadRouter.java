@@ -0,0 +1,53 @@
+package com.dev.ProductsAPI.routing;
+
+import com.dev.ProductsAPI.repository.ProductReader;
+import com.dev.ProductsAPI.repository.offheap.OffHeapProductRepository;
+import com.dev.ProductsAPI.repository.primary.ProductRepository;
+import com.dev.ProductsAPI.repository.secondary.ProductsMemoryRepository;
+import com.dev.ProductsAPI.repository.secondary.ProductsReplica;
+import com.dev.ProductsAPI.repository.secondary.ReplicaStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Picks the store a read goes to: the replica by default (H2 or the off-heap store, whichever
+ * {@link ProductsReplica} writes to), the primary database when
+ * routing is off, when the caller asked for {@link ReadConsistency#PRIMARY}, or while the
+ * replica is not readable.
+ */
+@Component
+public class ProductReadRouter {
+
+    private final ProductRepository productRepository;
+    private final ProductsMemoryRepository productsMemoryRepository;
+    private final OffHeapProductRepository offHeapProductRepository;
+    private final ProductsReplica productsReplica;
+    private final boolean enabled;
+    private final ReadConsistency defaultConsistency;
+
+    @Autowired
+    public ProductReadRouter(ProductRepository productRepository,
+                             ProductsMemoryRepository productsMemoryRepository,
+                             Optional<OffHeapProductRepository> offHeapProductRepository,
+                             ProductsReplica productsReplica,
+                             @Value("${products.read-routing.enabled:true}") boolean enabled,
+                             @Value("${products.read-routing.default-consistency:REPLICA}") ReadConsistency defaultConsistency) {
+        this.productRepository = productRepository;
+        this.productsMemoryRepository = productsMemoryRepository;
+        this.offHeapProductRepository = offHeapProductRepository.orElse(null);
+        this.productsReplica = productsReplica;
+        this.enabled = enabled;
+        this.defaultConsistency = defaultConsistency;
+    }
+
+    public ProductReader reader() {
+        ReadConsistency consistency = ReadConsistencyContext.current().orElse(defaultConsistency);
+        if (enabled && consistency == ReadConsistency.REPLICA && productsReplica.isReadable()) {
+            return productsReplica.getStore() == ReplicaStore.OFF_HEAP ? offHeapProductRepository : productsMemoryRepository;
+        }
+        return productRepository;
+    }
+}
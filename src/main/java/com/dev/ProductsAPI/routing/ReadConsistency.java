@@ -0,0 +1,10 @@
+package com.dev.ProductsAPI.routing;
+
+/**
+ * Where a read may be answered from. {@link #PRIMARY} gives read-your-writes for callers that
+ * cannot tolerate the replica being behind.
+ */
+public enum ReadConsistency {
+    REPLICA,
+    PRIMARY
+}
@@ -0,0 +1,23 @@
+package com.dev.ProductsAPI.routing;
+
+import java.util.Optional;
+
+public final class ReadConsistencyContext {
+
+    private static final ThreadLocal<ReadConsistency> CURRENT = new ThreadLocal<>();
+
+    private ReadConsistencyContext() {
+    }
+
+    public static Optional<ReadConsistency> current() {
+        return Optional.ofNullable(CURRENT.get());
+    }
+
+    public static void set(ReadConsistency readConsistency) {
+        CURRENT.set(readConsistency);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+}
@@ -0,0 +1,35 @@
+package com.dev.ProductsAPI.routing;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.Locale;
+
+/**
+ * Lets a client pick the read consistency per request with the {@value #HEADER} header
+ * ({@code primary} or {@code replica}).
+ */
+public class ReadConsistencyInterceptor implements HandlerInterceptor {
+
+    public static final String HEADER = "X-Read-Consistency";
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String header = request.getHeader(HEADER);
+        if (header != null) {
+            try {
+                ReadConsistencyContext.set(ReadConsistency.valueOf(header.trim().toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        ReadConsistencyContext.clear();
+    }
+}
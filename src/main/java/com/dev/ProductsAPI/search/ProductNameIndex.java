@@ -0,0 +1,363 @@
+package com.dev.ProductsAPI.search;
+
+import com.dev.ProductsAPI.models.ProductModel;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-process inverted n-gram index over product names for typeahead search. Names are folded to
+ * lower case without accents and split into words; every word is indexed by its trigrams and by
+ * its first one and two characters. A query word of three characters or more matches anywhere in
+ * a name, a shorter one only at the start of a word, and a product matches when every query word
+ * does. Candidates come from intersecting the sorted posting lists, so a query never scans
+ * the catalog.
+ * <p>
+ * Removed products leave stale entries in the posting lists, which are skipped at query time and
+ * dropped when the index compacts itself.
+ */
+@Component
+public class ProductNameIndex {
+
+    public static final int MAX_RESULT_WINDOW = 10_000;
+
+    private static final char WORD_START = '\u0002';
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern WORD_SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int MIN_COMPACTION = 1024;
+    private static final int MAX_SCORE = (1 << 12) - 1;
+    private static final int MAX_LENGTH = (1 << 20) - 1;
+    private static final long DOC_MASK = Integer.MAX_VALUE;
+
+    private record Document(UUID id, String name, BigDecimal value, String folded, String[] words) { }
+
+    private static final class Postings {
+        private int[] docs = new int[4];
+        private int size;
+
+        void add(int doc) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            docs[size++] = doc;
+        }
+
+        /**
+         * First position at or after {@code from} holding a document id not below {@code doc};
+         * gallops ahead before the binary search since intersections walk the lists in order.
+         */
+        int seek(int from, int doc) {
+            int step = 1;
+            int low = from;
+            int high = from;
+            while (high < size && docs[high] < doc) {
+                low = high + 1;
+                high += step;
+                step <<= 1;
+            }
+            int found = Arrays.binarySearch(docs, low, Math.min(high + 1, size), doc);
+            return found >= 0 ? found : -found - 1;
+        }
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<UUID, Integer> docByProduct = new HashMap<>();
+    // document ids only grow, which keeps every posting list sorted without sorting it
+    private final List<Document> documents = new ArrayList<>();
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private int removed;
+
+    public void upsertAll(Collection<ProductModel> products) {
+        lock.writeLock().lock();
+        try {
+            for (ProductModel product : products) {
+                Integer doc = docByProduct.get(product.getIdProduct());
+                String folded = fold(product.getName());
+                if (doc != null && documents.get(doc).folded().equals(folded)) {
+                    Document current = documents.get(doc);
+                    documents.set(doc, new Document(current.id(), product.getName(), product.getValue(), folded, current.words()));
+                    continue;
+                }
+                if (doc != null) {
+                    remove(doc);
+                }
+                add(product, folded);
+            }
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeAll(Collection<UUID> ids) {
+        lock.writeLock().lock();
+        try {
+            for (UUID id : ids) {
+                Integer doc = docByProduct.get(id);
+                if (doc != null) {
+                    remove(doc);
+                }
+            }
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ranks the matching products: an exact name first, then names starting with the query, then
+     * by how many query words start a word of the name; ties go to the shorter name, then to the
+     * product indexed first. Only the first {@link #MAX_RESULT_WINDOW} matches can be paged through.
+     */
+    public Page<ProductModel> search(String query, Pageable pageable) {
+        String foldedQuery = fold(query);
+        String[] queryWords = words(foldedQuery);
+        if (queryWords.length == 0) {
+            return Page.empty(pageable);
+        }
+        int window = (int) Math.min(pageable.getOffset() + pageable.getPageSize(), MAX_RESULT_WINDOW);
+
+        lock.readLock().lock();
+        try {
+            Postings[] lists = postingsFor(queryWords);
+            if (lists == null) {
+                return Page.empty(pageable);
+            }
+            Arrays.sort(lists, Comparator.comparingInt(list -> list.size));
+
+            // the best matches so far as rank keys, in a max-heap so the worst one is on top
+            long[] best = new long[window];
+            int found = 0;
+            long total = 0;
+            Postings smallest = lists[0];
+            int[] cursors = new int[lists.length];
+            candidates:
+            for (int i = 0; i < smallest.size; i++) {
+                int doc = smallest.docs[i];
+                for (int j = 1; j < lists.length; j++) {
+                    cursors[j] = lists[j].seek(cursors[j], doc);
+                    if (cursors[j] == lists[j].size) {
+                        break candidates;
+                    }
+                    if (lists[j].docs[cursors[j]] != doc) {
+                        continue candidates;
+                    }
+                }
+                Document document = documents.get(doc);
+                if (document == null) {
+                    continue;
+                }
+                int score = score(document, foldedQuery, queryWords);
+                if (score < 0) {
+                    continue;
+                }
+                total++;
+                long key = rankKey(score, document.folded().length(), doc);
+                if (found < window) {
+                    best[found] = key;
+                    siftUp(best, found++);
+                } else if (window > 0 && key < best[0]) {
+                    best[0] = key;
+                    siftDown(best, found);
+                }
+            }
+
+            Arrays.sort(best, 0, found);
+            List<ProductModel> content = new ArrayList<>();
+            for (int i = (int) Math.min(pageable.getOffset(), found); i < found; i++) {
+                Document document = documents.get((int) (best[i] & DOC_MASK));
+                content.add(new ProductModel(document.id(), document.name(), document.value()));
+            }
+            return new PageImpl<>(content, pageable, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docByProduct.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Checks the candidate against the query (trigrams can match words that do not contain the
+     * query word) and scores it, or returns -1 when it does not match.
+     */
+    private static int score(Document document, String foldedQuery, String[] queryWords) {
+        int score = 0;
+        for (String queryWord : queryWords) {
+            if (queryWord.length() < 3) {
+                // found through the word start grams, so it starts a word
+                score += 2;
+                continue;
+            }
+            boolean wordStart = false;
+            for (String word : document.words()) {
+                if (word.startsWith(queryWord)) {
+                    wordStart = true;
+                    break;
+                }
+            }
+            if (wordStart) {
+                score += 2;
+            } else if (document.folded().contains(queryWord)) {
+                score += 1;
+            } else {
+                return -1;
+            }
+        }
+        if (document.folded().equals(foldedQuery)) {
+            score += 100;
+        } else if (document.folded().startsWith(foldedQuery)) {
+            score += 50;
+        }
+        return score;
+    }
+
+    /**
+     * Packs a match into one long that orders like the ranking, smaller first: score descending,
+     * then name length, then document id.
+     */
+    private static long rankKey(int score, int length, int doc) {
+        long scoreRank = MAX_SCORE - Math.min(score, MAX_SCORE);
+        return (scoreRank << 51) | ((long) Math.min(length, MAX_LENGTH) << 31) | doc;
+    }
+
+    private static void siftUp(long[] heap, int index) {
+        long key = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heap[parent] >= key) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = key;
+    }
+
+    private static void siftDown(long[] heap, int size) {
+        long key = heap[0];
+        int index = 0;
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && heap[child + 1] > heap[child]) {
+                child++;
+            }
+            if (heap[child] <= key) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = key;
+    }
+
+    private Postings[] postingsFor(String[] queryWords) {
+        Set<Long> grams = new LinkedHashSet<>();
+        for (String word : queryWords) {
+            if (word.length() < 3) {
+                grams.add(gram(WORD_START, word.charAt(0), word.length() == 2 ? word.charAt(1) : 0));
+            } else {
+                for (int i = 0; i + 3 <= word.length(); i++) {
+                    grams.add(gram(word.charAt(i), word.charAt(i + 1), word.charAt(i + 2)));
+                }
+            }
+        }
+        Postings[] lists = new Postings[grams.size()];
+        int i = 0;
+        for (Long gram : grams) {
+            Postings list = postings.get(gram);
+            if (list == null) {
+                return null;
+            }
+            lists[i++] = list;
+        }
+        return lists;
+    }
+
+    private void add(ProductModel product, String folded) {
+        int doc = documents.size();
+        String[] words = words(folded);
+        documents.add(new Document(product.getIdProduct(), product.getName(), product.getValue(), folded, words));
+        docByProduct.put(product.getIdProduct(), doc);
+
+        Set<Long> grams = new LinkedHashSet<>();
+        for (String word : words) {
+            grams.add(gram(WORD_START, word.charAt(0), 0));
+            if (word.length() >= 2) {
+                grams.add(gram(WORD_START, word.charAt(0), word.charAt(1)));
+            }
+            for (int i = 0; i + 3 <= word.length(); i++) {
+                grams.add(gram(word.charAt(i), word.charAt(i + 1), word.charAt(i + 2)));
+            }
+        }
+        for (Long gram : grams) {
+            postings.computeIfAbsent(gram, key -> new Postings()).add(doc);
+        }
+    }
+
+    private void remove(int doc) {
+        docByProduct.remove(documents.get(doc).id());
+        documents.set(doc, null);
+        removed++;
+    }
+
+    private void compactIfNeeded() {
+        if (removed < MIN_COMPACTION || removed < docByProduct.size()) {
+            return;
+        }
+        List<Document> live = documents.stream().filter(document -> document != null).toList();
+        documents.clear();
+        docByProduct.clear();
+        postings.clear();
+        removed = 0;
+        for (Document document : live) {
+            add(new ProductModel(document.id(), document.name(), document.value()), document.folded());
+        }
+    }
+
+    private static long gram(int first, int second, int third) {
+        return ((long) first << 32) | ((long) second << 16) | third;
+    }
+
+    static String fold(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT).trim();
+    }
+
+    private static String[] words(String folded) {
+        if (folded.isEmpty()) {
+            return new String[0];
+        }
+        return Arrays.stream(WORD_SEPARATORS.split(folded)).filter(word -> !word.isEmpty()).toArray(String[]::new);
+    }
+}
@@ -0,0 +1,31 @@
+package com.dev.ProductsAPI.services;
+
+import com.dev.ProductsAPI.dtos.CacheStatisticsDto;
+import com.dev.ProductsAPI.models.ProductModel;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceUnit;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.springframework.stereotype.Service;
+
+@Service
+public class CacheStatisticsService {
+
+    @PersistenceUnit(unitName = "primary")
+    EntityManagerFactory entityManagerFactory;
+
+    public CacheStatisticsDto getProductCacheStatistics() {
+        CacheRegionStatistics statistics = entityManagerFactory.unwrap(SessionFactory.class)
+                .getStatistics()
+                .getDomainDataRegionStatistics(ProductModel.CACHE_REGION);
+        long lookups = statistics.getHitCount() + statistics.getMissCount();
+        double hitRatio = lookups == 0 ? 0.0 : (double) statistics.getHitCount() / lookups;
+        return new CacheStatisticsDto(
+                statistics.getRegionName(),
+                statistics.getHitCount(),
+                statistics.getMissCount(),
+                statistics.getPutCount(),
+                statistics.getElementCountInMemory(),
+                hitRatio);
+    }
+}
@@ -1,43 +1,97 @@
 package com.dev.ProductsAPI.services;
 
+import com.dev.ProductsAPI.client.FakeStoreClient;
+import com.dev.ProductsAPI.client.FakeStoreResponse;
+import com.dev.ProductsAPI.client.FakeStoreSnapshot;
+import com.dev.ProductsAPI.config.MetricsConfig;
 import com.dev.ProductsAPI.dtos.ProductApiDTO;
 import com.dev.ProductsAPI.exceptions.ApiOutOfServiceException;
 import com.dev.ProductsAPI.exceptions.ProductNotFoundException;
+import com.dev.ProductsAPI.mappers.ProductMapper;
 import com.dev.ProductsAPI.models.ProductModel;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.HttpStatusCodeException;
-import org.springframework.web.client.RestTemplate;
 
 
+import java.io.IOException;
 import java.util.Arrays;
-import java.util.List;
 import java.util.Optional;
+import java.util.List;
 
 @Service
 public class FakeProductsService {
-    private String baseUrl = "https://fakestoreapi.com";
+
+    /**
+     * Catalog downloaded from the fake store, with the response it came from so that it can be
+     * recorded once the import succeeded.
+     */
+    public record UpstreamCatalog(List<ProductModel> products, FakeStoreResponse response) { }
+
+    @Autowired
+    private FakeStoreClient fakeStoreClient;
+
+    @Autowired
+    private FakeStoreSnapshot fakeStoreSnapshot;
+
+    @Autowired
+    private ObjectMapper objectMapper;
 
     @Autowired
-    private RestTemplate restTemplate;
+    private ProductMapper productMapper;
 
-    public List<ProductModel> getProductsList() throws ApiOutOfServiceException {
+    /**
+     * Fetches the catalog conditionally against the last imported one, and returns empty when the
+     * upstream answered 304 or sent the same bytes again. Timed as a whole, retries and waits on
+     * an open circuit included; every attempt is also in {@code http.client.requests}.
+     */
+    @Timed(value = MetricsConfig.UPSTREAM_TIMER, extraTags = {"upstream", "fakestore"})
+    public Optional<UpstreamCatalog> getChangedProducts() throws ApiOutOfServiceException {
+        Optional<FakeStoreResponse> previous = fakeStoreSnapshot.load();
+        FakeStoreResponse response;
         try {
-            ProductApiDTO[] productApiDTOArray = restTemplate.getForObject(baseUrl+"/products", ProductApiDTO[].class);
-            Optional<ProductApiDTO[]> lista = Optional.ofNullable(productApiDTOArray);
-            return lista.map(productApiDTOS -> Arrays.stream(productApiDTOS)
-                            .map(this::convertToProductModel).toList())
-                    .orElseThrow(() -> new ProductNotFoundException("No products found"));
-        } catch (HttpStatusCodeException e) {
+            // waits at most for the client's timeouts and retries, and not at all while its circuit is open
+            response = fakeStoreClient.fetchProducts(previous.orElse(null)).block();
+        } catch (RuntimeException e) {
             throw new ApiOutOfServiceException("The API fake store is out of service", e);
         }
+        if (response == null || (!response.isNotModified() && response.body().length == 0)) {
+            throw new ProductNotFoundException("No products found");
+        }
+        if (response.isNotModified()
+                || previous.filter(snapshot -> Arrays.equals(snapshot.body(), response.body())).isPresent()) {
+            return Optional.empty();
+        }
+        return Optional.of(new UpstreamCatalog(parse(response.body()), response));
+    }
+
+    /**
+     * Records the catalog as imported, so that the next fetch can be answered with a 304.
+     */
+    public void markImported(UpstreamCatalog catalog) {
+        fakeStoreSnapshot.save(catalog.response());
     }
 
-    public ProductModel convertToProductModel(ProductApiDTO product) {
-        ProductModel newProductModel = new ProductModel();
-        newProductModel.setName(product.getName());
-        newProductModel.setValue(product.getValue());
-        return newProductModel;
+    private List<ProductModel> parse(byte[] body) {
+        ProductApiDTO[] productApiDTOArray;
+        try {
+            productApiDTOArray = objectMapper.readerFor(ProductApiDTO[].class)
+                    .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                    .readValue(body);
+        } catch (IOException e) {
+            throw new ApiOutOfServiceException("The API fake store sent an unreadable catalog", e);
+        }
+        if (productApiDTOArray == null) {
+            throw new ProductNotFoundException("No products found");
+        }
+        if (Arrays.stream(productApiDTOArray).anyMatch(product -> product.getExternalId() == null)) {
+            // imports are matched on the fake store id, a product without one could only be duplicated
+            throw new ApiOutOfServiceException("The API fake store sent a product without id");
+        }
+        return Arrays.stream(productApiDTOArray)
+                .map(productMapper::toProductModel).toList();
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,18 @@
+package com.dev.ProductsAPI.services;
+
+/**
+ * Receives the progress of a fake store import, e.g. to report it on a background job.
+ */
+public interface ImportProgress {
+
+    ImportProgress NONE = new ImportProgress() { };
+
+    default void fetching() {
+    }
+
+    default void saving(int items) {
+    }
+
+    default void saved(int items) {
+    }
+}
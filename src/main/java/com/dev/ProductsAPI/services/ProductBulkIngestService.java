@@ -0,0 +1,116 @@
+package com.dev.ProductsAPI.services;
+
+import com.dev.ProductsAPI.dtos.BulkIngestReport;
+import com.dev.ProductsAPI.dtos.BulkIngestReport.ChunkReport;
+import com.dev.ProductsAPI.dtos.BulkIngestReport.ItemFailure;
+import com.dev.ProductsAPI.dtos.ProductRecordDto;
+import com.dev.ProductsAPI.mappers.ProductMapper;
+import com.dev.ProductsAPI.models.ProductModel;
+import com.dev.ProductsAPI.repository.primary.ProductRepository;
+import com.dev.ProductsAPI.repository.secondary.ProductsReplica;
+import com.dev.ProductsAPI.search.ProductNameIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes products in fixed-size chunks, one transaction per chunk, so Hibernate can send
+ * each chunk as JDBC batches (see {@code hibernate.jdbc.batch_size}).
+ * When a chunk fails it is rolled back and replayed item by item to find the bad records.
+ */
+@Service
+public class ProductBulkIngestService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductBulkIngestService.class);
+
+    private final ProductRepository productRepository;
+    private final ProductsReplica productsReplica;
+    private final ProductNameIndex productNameIndex;
+    private final ProductMapper productMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    @Autowired
+    public ProductBulkIngestService(ProductRepository productRepository,
+                                    ProductsReplica productsReplica,
+                                    ProductNameIndex productNameIndex,
+                                    ProductMapper productMapper,
+                                    @Qualifier("primaryTransactionManager") PlatformTransactionManager transactionManager,
+                                    @Value("${products.ingest.chunk-size:500}") int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("products.ingest.chunk-size must be positive");
+        }
+        this.productRepository = productRepository;
+        this.productsReplica = productsReplica;
+        this.productNameIndex = productNameIndex;
+        this.productMapper = productMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    public BulkIngestReport ingest(List<ProductRecordDto> productRecordDtos) {
+        List<ChunkReport> chunks = new ArrayList<>();
+        for (int offset = 0; offset < productRecordDtos.size(); offset += chunkSize) {
+            List<ProductModel> chunk = productRecordDtos.subList(offset, Math.min(offset + chunkSize, productRecordDtos.size()))
+                    .stream().map(productMapper::toProductModel).toList();
+            chunks.add(ingestChunk(chunks.size(), offset, chunk));
+        }
+        return BulkIngestReport.of(productRecordDtos.size(), chunks);
+    }
+
+    /**
+     * Persists one chunk. Products that were saved come back with their generated id; products
+     * listed in the report failures are left without one.
+     */
+    public ChunkReport ingestChunk(int chunkIndex, int offset, List<ProductModel> productModels) {
+        ChunkReport report;
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                productRepository.saveAll(productModels);
+                productRepository.flush();
+            });
+            report = new ChunkReport(chunkIndex, offset, productModels.size(), productModels.size(), List.of());
+        } catch (RuntimeException e) {
+            logger.warn("Chunk {} failed as a whole, retrying item by item: {}", chunkIndex, e.getMessage());
+            report = ingestItemByItem(chunkIndex, offset, productModels);
+        }
+        List<ProductModel> savedProducts = productModels.stream().filter(product -> product.getIdProduct() != null).toList();
+        productsReplica.upsertAll(savedProducts);
+        productNameIndex.upsertAll(savedProducts);
+        return report;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    private ChunkReport ingestItemByItem(int chunkIndex, int offset, List<ProductModel> productModels) {
+        List<ItemFailure> failures = new ArrayList<>();
+        for (int i = 0; i < productModels.size(); i++) {
+            ProductModel productModel = productModels.get(i);
+            // the id and version handed out by the rolled back chunk were never committed, and
+            // with either of them left set Hibernate would merge into a copy instead of persisting
+            resetGeneratedState(productModel);
+            try {
+                transactionTemplate.executeWithoutResult(status -> productRepository.saveAndFlush(productModel));
+            } catch (RuntimeException e) {
+                resetGeneratedState(productModel);
+                failures.add(new ItemFailure(offset + i, productModel.getName(), e.getMessage()));
+            }
+        }
+        return new ChunkReport(chunkIndex, offset, productModels.size(), productModels.size() - failures.size(), failures);
+    }
+
+    private static void resetGeneratedState(ProductModel productModel) {
+        productModel.setIdProduct(null);
+        productModel.setVersion(null);
+    }
+}
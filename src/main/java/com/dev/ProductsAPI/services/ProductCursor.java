@@ -0,0 +1,42 @@
+package com.dev.ProductsAPI.services;
+
+import com.dev.ProductsAPI.exceptions.InvalidCursorException;
+import com.dev.ProductsAPI.models.ProductModel;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in the (name, idProduct) ordering used by keyset pagination. Clients only ever see
+ * the opaque, URL-safe encoded form. A product without a name is encoded with a lone separator
+ * in place of the name, which no stored name can be since PostgreSQL text cannot hold it.
+ */
+public record ProductCursor(String name, UUID idProduct) {
+
+    private static final char SEPARATOR = '\u0000';
+    private static final String NULL_NAME = String.valueOf(SEPARATOR);
+
+    public static ProductCursor after(ProductModel product) {
+        return new ProductCursor(product.getName(), product.getIdProduct());
+    }
+
+    public static ProductCursor decode(String token) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = decoded.lastIndexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new InvalidCursorException("Invalid page cursor.");
+            }
+            String name = decoded.substring(0, separator);
+            return new ProductCursor(name.equals(NULL_NAME) ? null : name, UUID.fromString(decoded.substring(separator + 1)));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Invalid page cursor.", e);
+        }
+    }
+
+    public String encode() {
+        String raw = (name == null ? NULL_NAME : name) + SEPARATOR + idProduct;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,99 +1,384 @@
 package com.dev.ProductsAPI.services;
 
-import com.dev.ProductsAPI.controllers.ProductController;
+import com.dev.ProductsAPI.config.MetricsConfig;
+import com.dev.ProductsAPI.dtos.ProductBatchGetResult;
+import com.dev.ProductsAPI.dtos.ProductBulkMutationReport;
+import com.dev.ProductsAPI.dtos.ProductKeysetPage;
+import com.dev.ProductsAPI.dtos.ProductPatchDto;
 import com.dev.ProductsAPI.dtos.ProductRecordDto;
+import com.dev.ProductsAPI.dtos.ProductRefDto;
+import com.dev.ProductsAPI.dtos.ProductSyncReport;
+import com.dev.ProductsAPI.exceptions.InvalidQueryException;
 import com.dev.ProductsAPI.exceptions.NoContentException;
 import com.dev.ProductsAPI.exceptions.ProductNotFoundException;
 import com.dev.ProductsAPI.exceptions.ProductSaveException;
+import com.dev.ProductsAPI.exceptions.ProductVersionConflictException;
+import com.dev.ProductsAPI.mappers.ProductMapper;
 import com.dev.ProductsAPI.models.ProductModel;
+import com.dev.ProductsAPI.projections.ProductFieldSet;
+import com.dev.ProductsAPI.projections.ProductIdView;
+import com.dev.ProductsAPI.repository.ProductReader;
+import com.dev.ProductsAPI.repository.primary.ProductMutationRepository;
 import com.dev.ProductsAPI.repository.primary.ProductRepository;
-import org.springframework.beans.BeanUtils;
+import com.dev.ProductsAPI.repository.primary.ProductSpecifications;
+import com.dev.ProductsAPI.repository.primary.ProductUpsertRepository;
+import com.dev.ProductsAPI.repository.secondary.ProductsReplica;
+import com.dev.ProductsAPI.routing.ProductReadRouter;
+import com.dev.ProductsAPI.search.ProductNameIndex;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.web.PagedResourcesAssembler;
-import org.springframework.hateoas.EntityModel;
-import org.springframework.hateoas.PagedModel;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
 import java.util.UUID;
-
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+import java.util.stream.Collectors;
 
 
 @Service
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class ProductService {
 
+    private static final int MAX_KEYSET_PAGE_SIZE = 1000;
+    private static final int MAX_BATCH_SIZE = 1000;
+    private static final int BATCH_GET_CHUNK_SIZE = 500;
+    private static final Set<String> QUERY_SORT_PROPERTIES = Set.of("name", "value", "idProduct");
+
     @Autowired
     ProductRepository productRepository;
 
+    @Autowired
+    ProductUpsertRepository productUpsertRepository;
+
+    @Autowired
+    ProductMutationRepository productMutationRepository;
+
+    @Autowired
+    ProductsReplica productsReplica;
+
+    @Autowired
+    ProductReadRouter productReadRouter;
+
+    @Autowired
+    ProductNameIndex productNameIndex;
+
     @Autowired
     FakeProductsService fakeProductsService;
 
     @Autowired
-    private PagedResourcesAssembler<ProductModel> assembler;
+    ProductMapper productMapper;
 
-    public List<ProductModel> saveProductsIntoDB() {
-        List<ProductModel> productList = fakeProductsService.getProductsList();
-        productList.forEach(product -> productRepository.save(product));
-        return productList;
+    /**
+     * Imports the fake store catalog matched on the fake store id, so re-importing it only writes
+     * the products that changed. Does not touch the database when the catalog has not changed
+     * since the last import.
+     */
+    public ProductSyncReport saveProductsIntoDB() {
+        return saveProductsIntoDB(ImportProgress.NONE);
+    }
+
+    public ProductSyncReport saveProductsIntoDB(ImportProgress progress) {
+        progress.fetching();
+        Optional<FakeProductsService.UpstreamCatalog> catalog = fakeProductsService.getChangedProducts();
+        if (catalog.isEmpty()) {
+            return ProductSyncReport.notModified();
+        }
+        List<ProductModel> productList = catalog.get().products();
+        progress.saving(productList.size());
+        ProductUpsertRepository.UpsertResult result = productUpsertRepository.upsertAll(productList, progress::saved);
+        List<ProductModel> written = new ArrayList<>(result.inserted());
+        written.addAll(result.updated());
+        productsReplica.upsertAll(written);
+        productNameIndex.upsertAll(written);
+        fakeProductsService.markImported(catalog.get());
+        return new ProductSyncReport(true, productList.size(), result.inserted().size(), result.updated().size(), result.unchanged());
     }
 
     public List<ProductModel> saveProducts(List<ProductRecordDto> productRecordDto) {
         List<ProductModel> savedProducts = new ArrayList<>();
         try {
             for(ProductRecordDto productDto : productRecordDto) {
-                ProductModel productModel = new ProductModel();
-                BeanUtils.copyProperties(productDto, productModel);
-                savedProducts.add(productRepository.save(productModel));
+                savedProducts.add(productRepository.save(productMapper.toProductModel(productDto)));
             }
         } catch (RuntimeException e){
             throw new ProductSaveException("Failed to save product", e);
         }
+        productsReplica.upsertAll(savedProducts);
+        productNameIndex.upsertAll(savedProducts);
         return savedProducts;
     }
 
-    public PagedModel<EntityModel<ProductModel>> getAllProducts(Pageable pageable) {
-        Page<ProductModel> productsPage = productRepository.findAll(pageable);
+    public Page<ProductModel> getAllProducts(Pageable pageable) {
+        Page<ProductModel> productsPage = productReadRouter.reader().findAll(pageable);
+        if (productsPage.isEmpty()) {
+            throw new NoContentException("There are no products to list");
+        }
+        return productsPage;
+    }
+
+    /**
+     * Sparse fieldset read: selects only the columns of the requested fields into a projection,
+     * so no entity is loaded into the persistence context for it.
+     */
+    public Page<ProductIdView> getAllProducts(Pageable pageable, ProductFieldSet fields) {
+        Page<ProductIdView> productsPage = productReadRouter.reader().findProjectedBy(pageable, fields.getViewType())
+                .map(ProductIdView.class::cast);
         if (productsPage.isEmpty()) {
             throw new NoContentException("There are no products to list");
         }
+        return productsPage;
+    }
+
+    /**
+     * Filters by name prefix and value range in the database. Sorting is limited to the indexed
+     * columns, and the id is appended as a tie-breaker so pages stay stable.
+     */
+    public Page<ProductModel> queryProducts(String namePrefix, BigDecimal minValue, BigDecimal maxValue, Pageable pageable) {
+        if (minValue != null && maxValue != null && minValue.compareTo(maxValue) > 0) {
+            throw new InvalidQueryException("minValue must not be greater than maxValue");
+        }
+        for (Sort.Order order : pageable.getSort()) {
+            if (!QUERY_SORT_PROPERTIES.contains(order.getProperty())) {
+                throw new InvalidQueryException("Products cannot be sorted by " + order.getProperty());
+            }
+        }
+        Pageable stablePageable = pageable;
+        if (pageable.isPaged() && pageable.getSort().isSorted() && pageable.getSort().getOrderFor("idProduct") == null) {
+            stablePageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort().and(Sort.by("idProduct")));
+        }
+
+        Specification<ProductModel> specification = Specification.where(ProductSpecifications.nameStartsWith(namePrefix))
+                .and(ProductSpecifications.valueAtLeast(minValue))
+                .and(ProductSpecifications.valueAtMost(maxValue));
+        Page<ProductModel> productsPage = productRepository.findAll(specification, stablePageable);
+        if (productsPage.isEmpty()) {
+            throw new NoContentException("There are no products to list");
+        }
+
+        return productsPage;
+    }
+
+    /**
+     * Typeahead search on product names, answered from the in-process {@link ProductNameIndex}
+     * and ranked by relevance rather than by a sort parameter.
+     */
+    public Page<ProductModel> searchProducts(String query, Pageable pageable) {
+        if (query == null || query.isBlank()) {
+            throw new InvalidQueryException("The search query must not be blank");
+        }
+        if (pageable.isPaged() && pageable.getOffset() >= ProductNameIndex.MAX_RESULT_WINDOW) {
+            throw new InvalidQueryException("Only the first " + ProductNameIndex.MAX_RESULT_WINDOW + " search results can be paged through");
+        }
+        Page<ProductModel> productsPage = productNameIndex.search(query, pageable.isPaged() ? pageable : PageRequest.of(0, 20));
+        if (productsPage.isEmpty()) {
+            throw new NoContentException("There are no products to list");
+        }
+
+        return productsPage;
+    }
+
+    /**
+     * Keyset pagination over (name, idProduct). An empty {@code after} token starts from the
+     * beginning; the page carries the {@code next} cursor while more products follow. Products
+     * without a name come last, as PostgreSQL sorts nulls, ordered by id.
+     */
+    public ProductKeysetPage getProductsAfter(String after, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_KEYSET_PAGE_SIZE));
+        Limit limit = Limit.of(pageSize + 1);
+        List<ProductModel> products;
+        if (after == null || after.isEmpty()) {
+            products = productRepository.findByOrderByNameAscIdProductAsc(limit);
+        } else {
+            ProductCursor cursor = ProductCursor.decode(after);
+            if (cursor.name() == null) {
+                products = productRepository.findByNameIsNullAndIdProductGreaterThanOrderByIdProductAsc(cursor.idProduct(), limit);
+            } else {
+                products = new ArrayList<>(productRepository.findPageAfter(cursor.name(), cursor.idProduct(), limit));
+                // the row comparison never matches a null name, those rows follow the named ones
+                if (products.size() < limit.max()) {
+                    products.addAll(productRepository.findByNameIsNullOrderByIdProductAsc(Limit.of(limit.max() - products.size())));
+                }
+            }
+        }
+        if (products.isEmpty()) {
+            throw new NoContentException("There are no products to list");
+        }
 
-        PagedModel<EntityModel<ProductModel>> pagedModel = assembler.toModel(
-                productsPage,
-                product -> EntityModel.of(product,
-                        linkTo(methodOn(ProductController.class).getOneProduct(product.getIdProduct())).withSelfRel())
-        );
-        return pagedModel;
+        boolean hasNext = products.size() > pageSize;
+        List<ProductModel> page = hasNext ? products.subList(0, pageSize) : products;
+        String next = hasNext ? ProductCursor.after(page.get(page.size() - 1)).encode() : null;
+        return new ProductKeysetPage(page, pageSize, next);
     }
 
     public ProductModel getOneProduct(UUID id) {
-        Optional<ProductModel> productOptional = productRepository.findById(id);
+        Optional<ProductModel> productOptional = productReadRouter.reader().findById(id);
         if (productOptional.isEmpty()) throw new ProductNotFoundException("This product was not found. Try again.");
-
-        productOptional.get().add(linkTo(methodOn(ProductController.class).getAllProducts(Pageable.unpaged())).withRel("Products List:"));
         return productOptional.get();
     }
 
-    public ProductModel updateProduct(UUID id, ProductRecordDto productRecordDto) {
-        Optional<ProductModel> productOptional = productRepository.findById(id);
-        if(productOptional.isEmpty()) {
-            throw new ProductNotFoundException("This product was not found. Try again.");
+    public ProductIdView getOneProduct(UUID id, ProductFieldSet fields) {
+        return productReadRouter.reader().findProjectedByIdProduct(id, fields.getViewType())
+                .orElseThrow(() -> new ProductNotFoundException("This product was not found. Try again."));
+    }
+
+    /**
+     * Updates the product in a single statement. With an {@code expectedVersion} the update only
+     * applies while the product is still at that version, a stale one is a conflict.
+     */
+    public ProductModel updateProduct(UUID id, ProductRecordDto productRecordDto, Long expectedVersion) {
+        ProductModel productModel = productMapper.toProductModel(productRecordDto);
+        productModel.setIdProduct(id);
+        OptionalLong version = productMutationRepository.update(productModel, expectedVersion);
+        if (version.isEmpty()) {
+            throw notFoundOrConflict(id, expectedVersion);
+        }
+        productModel.setVersion(version.getAsLong());
+        productsReplica.upsert(productModel);
+        productNameIndex.upsertAll(List.of(productModel));
+        return productModel;
+    }
+
+    /**
+     * Deletes the product in a single statement, with an {@code expectedVersion} only while the
+     * product is still at that version.
+     */
+    public void deleteProduct(UUID id, Long expectedVersion) {
+        if (!productMutationRepository.delete(id, expectedVersion)) {
+            throw notFoundOrConflict(id, expectedVersion);
+        }
+        productsReplica.delete(id);
+        productNameIndex.removeAll(List.of(id));
+    }
+
+    /**
+     * Reads the products with one {@code IN} query per chunk of ids, from the store the read is
+     * routed to, and returns them in the order they were asked for. An id asked for more than once
+     * is returned once.
+     */
+    public ProductBatchGetResult getProducts(List<UUID> ids) {
+        checkBatchSize(ids.size());
+        if (ids.stream().anyMatch(Objects::isNull)) {
+            throw new InvalidQueryException("Product ids must not be null");
+        }
+        List<UUID> distinct = List.copyOf(new LinkedHashSet<>(ids));
+        ProductReader reader = productReadRouter.reader();
+        Map<UUID, ProductModel> byId = HashMap.newHashMap(distinct.size());
+        for (int offset = 0; offset < distinct.size(); offset += BATCH_GET_CHUNK_SIZE) {
+            for (ProductModel product : reader.findAllById(distinct.subList(offset, Math.min(offset + BATCH_GET_CHUNK_SIZE, distinct.size())))) {
+                byId.put(product.getIdProduct(), product);
+            }
+        }
+
+        List<ProductModel> products = new ArrayList<>(byId.size());
+        List<UUID> notFound = new ArrayList<>();
+        for (UUID id : distinct) {
+            ProductModel product = byId.get(id);
+            if (product == null) {
+                notFound.add(id);
+            } else {
+                products.add(product);
+            }
+        }
+        return new ProductBatchGetResult(products, notFound);
+    }
+
+    /**
+     * Updates the products with one statement per chunk. Every patch applies on its own, like
+     * {@link #updateProduct} would: the report lists the products that were not found and the ones
+     * at another version than expected.
+     */
+    public ProductBulkMutationReport<ProductModel> patchProducts(List<ProductPatchDto> patches) {
+        checkBatchSize(patches.size());
+        Map<UUID, Long> expectedVersions = new LinkedHashMap<>();
+        for (ProductPatchDto patch : patches) {
+            if (patch.name() == null && patch.value() == null) {
+                throw new InvalidQueryException("Nothing to update in product " + patch.idProduct());
+            }
+            if (patch.name() != null && patch.name().isBlank()) {
+                throw new InvalidQueryException("The name of product " + patch.idProduct() + " must not be blank");
+            }
+            putOnce(expectedVersions, patch.idProduct(), patch.version());
+        }
+
+        List<ProductModel> updated = productMutationRepository.updateAll(patches);
+        productsReplica.upsertAll(updated);
+        productNameIndex.upsertAll(updated);
+        return report(updated, updated.stream().map(ProductModel::getIdProduct).collect(Collectors.toSet()), expectedVersions);
+    }
+
+    /**
+     * Deletes the products with one statement per chunk, each like {@link #deleteProduct} would.
+     */
+    public ProductBulkMutationReport<UUID> deleteProducts(List<ProductRefDto> products) {
+        checkBatchSize(products.size());
+        Map<UUID, Long> expectedVersions = new LinkedHashMap<>();
+        for (ProductRefDto product : products) {
+            putOnce(expectedVersions, product.idProduct(), product.version());
+        }
+
+        List<UUID> deleted = productMutationRepository.deleteAll(products);
+        productsReplica.deleteAll(deleted);
+        productNameIndex.removeAll(deleted);
+        return report(deleted, Set.copyOf(deleted), expectedVersions);
+    }
+
+    private static void checkBatchSize(int size) {
+        if (size == 0) {
+            throw new InvalidQueryException("No products were given");
+        }
+        if (size > MAX_BATCH_SIZE) {
+            throw new InvalidQueryException("At most " + MAX_BATCH_SIZE + " products can be given at once");
+        }
+    }
+
+    // a product given twice would be written in an undefined order, it is refused instead
+    private static void putOnce(Map<UUID, Long> expectedVersions, UUID id, Long version) {
+        if (expectedVersions.containsKey(id)) {
+            throw new InvalidQueryException("Product " + id + " is given more than once");
+        }
+        expectedVersions.put(id, version);
+    }
+
+    // as for a single product, only the conditional writes that missed need a second look
+    private <T> ProductBulkMutationReport<T> report(List<T> applied, Set<UUID> appliedIds, Map<UUID, Long> expectedVersions) {
+        List<UUID> missedConditionally = new ArrayList<>();
+        expectedVersions.forEach((id, version) -> {
+            if (version != null && !appliedIds.contains(id)) {
+                missedConditionally.add(id);
+            }
+        });
+        Set<UUID> existing = missedConditionally.isEmpty() ? Set.of() : productMutationRepository.findExistingIds(missedConditionally);
+
+        List<UUID> notFound = new ArrayList<>();
+        List<UUID> conflicts = new ArrayList<>();
+        for (UUID id : expectedVersions.keySet()) {
+            if (!appliedIds.contains(id)) {
+                (existing.contains(id) ? conflicts : notFound).add(id);
+            }
         }
-        ProductModel productModel = productOptional.get();
-        BeanUtils.copyProperties(productRecordDto, productModel);
-        return productRepository.save(productModel);
+        return new ProductBulkMutationReport<>(expectedVersions.size(), applied, notFound, conflicts);
     }
 
-    public void deleteProduct(UUID id){
-        Optional<ProductModel> productOptional = productRepository.findById(id);
-        if (productOptional.isEmpty()) {
-            throw new ProductNotFoundException("This product was not found. Try again.");
+    // only a failed conditional write needs a second look to tell a stale version from a missing product
+    private RuntimeException notFoundOrConflict(UUID id, Long expectedVersion) {
+        if (expectedVersion != null && productRepository.existsById(id)) {
+            return new ProductVersionConflictException("This product was changed in the meantime. Reload it and try again.");
         }
-        productRepository.delete(productOptional.get());
+        return new ProductNotFoundException("This product was not found. Try again.");
     }
 }
@@ -0,0 +1,229 @@
+package com.dev.ProductsAPI.services;
+
+import com.dev.ProductsAPI.dtos.BulkIngestReport.ChunkReport;
+import com.dev.ProductsAPI.dtos.BulkIngestReport.ItemFailure;
+import com.dev.ProductsAPI.dtos.IngestLineResult;
+import com.dev.ProductsAPI.dtos.ProductRecordDto;
+import com.dev.ProductsAPI.mappers.ProductMapper;
+import com.dev.ProductsAPI.models.ProductModel;
+import com.dev.ProductsAPI.repository.primary.ProductRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Streaming product ingest and export. Memory use is bounded by one ingest chunk or one fetched
+ * batch of rows, whatever the size of the payload or of the catalog.
+ */
+@Service
+public class ProductStreamService {
+
+    private static final byte[] NEW_LINE = {'\n'};
+
+    public enum ExportFormat { NDJSON, CSV }
+
+    @Autowired
+    ProductBulkIngestService productBulkIngestService;
+
+    @Autowired
+    ProductRepository productRepository;
+
+    @PersistenceContext(unitName = "primary")
+    EntityManager entityManager;
+
+    @Autowired
+    @Qualifier("primaryTransactionManager")
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    Validator validator;
+
+    @Autowired
+    ProductMapper productMapper;
+
+    /**
+     * Reads one {@link ProductRecordDto} per line, validates it and persists the valid ones in
+     * chunks. One {@link IngestLineResult} per non-blank line is written back, in input order,
+     * as soon as the chunk holding it has been committed.
+     */
+    public void ingestNdjson(InputStream input, OutputStream output) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        IngestChunk chunk = new IngestChunk();
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            chunk.add(lineNumber, line);
+            if (chunk.lines.size() >= productBulkIngestService.getChunkSize()) {
+                chunk.flush(output);
+                chunk = new IngestChunk(chunk);
+            }
+        }
+        chunk.flush(output);
+    }
+
+    /**
+     * Writes every product straight from a database cursor. Rows are detached as soon as they are
+     * written, so neither the persistence context nor the response grows with the catalog.
+     */
+    public void export(ExportFormat format, OutputStream output) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<ProductModel> products = productRepository.streamAll()) {
+                if (format == ExportFormat.CSV) {
+                    exportCsv(products, output);
+                } else {
+                    exportNdjson(products, output);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private void exportNdjson(Stream<ProductModel> products, OutputStream output) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(output);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+        for (ProductModel product : (Iterable<ProductModel>) products::iterator) {
+            generator.writeStartObject();
+            generator.writeStringField("idProduct", product.getIdProduct().toString());
+            generator.writeStringField("name", product.getName());
+            generator.writeFieldName("value");
+            if (product.getValue() == null) {
+                generator.writeNull();
+            } else {
+                generator.writeNumber(product.getValue());
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+            entityManager.detach(product);
+        }
+        generator.close();
+    }
+
+    private void exportCsv(Stream<ProductModel> products, OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        writer.write("idProduct,name,value\n");
+        for (ProductModel product : (Iterable<ProductModel>) products::iterator) {
+            writer.write(product.getIdProduct().toString());
+            writer.write(',');
+            writer.write(csvField(product.getName()));
+            writer.write(',');
+            writer.write(product.getValue() == null ? "" : product.getValue().toPlainString());
+            writer.write('\n');
+            entityManager.detach(product);
+        }
+        writer.flush();
+    }
+
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private void writeLine(OutputStream output, Object value) throws IOException {
+        output.write(objectMapper.writeValueAsBytes(value));
+        output.write(NEW_LINE);
+    }
+
+    private class IngestChunk {
+        private final int chunkIndex;
+        private final int offset;
+        private final List<Long> lines = new ArrayList<>();
+        private final Map<Long, IngestLineResult> rejected = new HashMap<>();
+        private final List<ProductModel> valid = new ArrayList<>();
+        private final List<Long> validLines = new ArrayList<>();
+
+        IngestChunk() {
+            this.chunkIndex = 0;
+            this.offset = 0;
+        }
+
+        IngestChunk(IngestChunk previous) {
+            this.chunkIndex = previous.chunkIndex + 1;
+            this.offset = previous.offset + previous.valid.size();
+        }
+
+        void add(long lineNumber, String line) {
+            lines.add(lineNumber);
+            ProductRecordDto productRecordDto;
+            try {
+                productRecordDto = objectMapper.readValue(line, ProductRecordDto.class);
+            } catch (JsonProcessingException e) {
+                rejected.put(lineNumber, IngestLineResult.invalid(lineNumber, List.of("malformed JSON: " + e.getOriginalMessage())));
+                return;
+            }
+            Set<ConstraintViolation<ProductRecordDto>> violations = validator.validate(productRecordDto);
+            if (!violations.isEmpty()) {
+                List<String> errors = violations.stream()
+                        .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                        .sorted()
+                        .toList();
+                rejected.put(lineNumber, IngestLineResult.invalid(lineNumber, errors));
+                return;
+            }
+            valid.add(productMapper.toProductModel(productRecordDto));
+            validLines.add(lineNumber);
+        }
+
+        void flush(OutputStream output) throws IOException {
+            if (lines.isEmpty()) {
+                return;
+            }
+            Map<Long, IngestLineResult> results = new HashMap<>(rejected);
+            if (!valid.isEmpty()) {
+                ChunkReport report = productBulkIngestService.ingestChunk(chunkIndex, offset, valid);
+                for (ItemFailure failure : report.failures()) {
+                    long lineNumber = validLines.get(failure.index() - offset);
+                    results.put(lineNumber, IngestLineResult.failed(lineNumber, failure.reason()));
+                }
+                for (int i = 0; i < valid.size(); i++) {
+                    results.putIfAbsent(validLines.get(i), IngestLineResult.created(validLines.get(i), valid.get(i).getIdProduct()));
+                }
+            }
+            for (Long lineNumber : lines) {
+                writeLine(output, results.get(lineNumber));
+            }
+            output.flush();
+        }
+    }
+}
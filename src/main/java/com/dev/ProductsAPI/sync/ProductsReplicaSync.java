@@ -0,0 +1,279 @@
+package com.dev.ProductsAPI.sync;
+
+import com.dev.ProductsAPI.models.ProductModel;
+import com.dev.ProductsAPI.repository.secondary.ProductsReplica;
+import com.dev.ProductsAPI.search.ProductNameIndex;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps the in-memory replica in step with PostgreSQL by replaying {@code product_change_log},
+ * which a trigger fills on every insert, update and delete of {@code "tb products"}. Only the
+ * changed ids are read back, in batches, and a row that no longer exists is deleted from the
+ * replica and the name search index. Replaying is idempotent, so overlapping the warm-up or the
+ * write-through is harmless.
+ * <p>
+ * A change id is taken from its sequence when the row is inserted, not when the transaction
+ * commits, so a lower id can become visible after higher ones were applied. Ids skipped over are
+ * kept as gaps and read again on every run until they show up or {@code gap-timeout} has passed,
+ * after which the transaction that held them must have rolled back. The log is only pruned below
+ * the oldest id that may still have to be applied.
+ */
+@Component
+public class ProductsReplicaSync {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductsReplicaSync.class);
+
+    private static final String HIGH_WATER_MARK_SQL = "SELECT COALESCE(MAX(change_id), 0) FROM product_change_log";
+    private static final String CHANGES_SQL =
+            "SELECT change_id, id_product FROM product_change_log WHERE change_id > ? ORDER BY change_id LIMIT ?";
+    private static final String OLDEST_PENDING_SQL =
+            "SELECT MIN(changed_at) FROM product_change_log WHERE change_id > ?";
+    private static final String ROWS_SQL =
+            "SELECT id_product, name, value, version FROM \"tb products\" WHERE id_product = ANY (?)";
+    private static final String GAP_CHANGES_SQL =
+            "SELECT change_id, id_product FROM product_change_log WHERE change_id BETWEEN ? AND ? ORDER BY change_id";
+    private static final String RECENT_CHANGE_IDS_SQL =
+            "SELECT change_id FROM product_change_log WHERE change_id > ? AND change_id <= ? ORDER BY change_id";
+    private static final String PRUNE_SQL =
+            "DELETE FROM product_change_log WHERE changed_at < ? AND change_id <= ?";
+
+    /**
+     * Change ids {@code from} to {@code to} that were not visible when the ids around them were applied.
+     */
+    private record Gap(long from, long to, Instant seenAt) { }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ProductsReplica productsReplica;
+    private final ProductNameIndex productNameIndex;
+    private final int batchSize;
+    private final Duration retention;
+    private final Duration gapTimeout;
+
+    // a lock rather than synchronized, the sync holds it across JDBC calls and would otherwise pin
+    // a virtual thread to its carrier
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // only touched while holding the lock
+    private final List<Gap> gaps = new ArrayList<>();
+
+    private volatile long lastAppliedChangeId = -1;
+    private volatile long lagChanges;
+    private volatile double lagSeconds;
+
+    @Autowired
+    public ProductsReplicaSync(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                               ProductsReplica productsReplica,
+                               ProductNameIndex productNameIndex,
+                               MeterRegistry meterRegistry,
+                               @Value("${products.replica.sync.batch-size:1000}") int batchSize,
+                               @Value("${products.replica.sync.retention:P1D}") Duration retention,
+                               @Value("${products.replica.sync.gap-timeout:PT5M}") Duration gapTimeout) {
+        this.jdbcTemplate = new JdbcTemplate(primaryDataSource);
+        this.productsReplica = productsReplica;
+        this.productNameIndex = productNameIndex;
+        this.batchSize = batchSize;
+        this.retention = retention;
+        this.gapTimeout = gapTimeout;
+
+        Gauge.builder("products.replica.lag.changes", this, sync -> sync.lagChanges)
+                .description("Changes logged on the primary that the replica has not applied yet")
+                .register(meterRegistry);
+        Gauge.builder("products.replica.lag.seconds", this, sync -> sync.lagSeconds)
+                .description("Age of the oldest change the replica has not applied yet")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Called before a full copy starts: everything logged from here on is replayed afterwards,
+     * which covers rows the copy read before they were changed.
+     */
+    public void startFromCurrentPosition() {
+        lock.lock();
+        try {
+            Long highWaterMark = jdbcTemplate.queryForObject(HIGH_WATER_MARK_SQL, Long.class);
+            long position = highWaterMark == null ? 0 : highWaterMark;
+            // transactions still open may hold ids below the mark; the ids missing from the last batch
+            // before it are watched like any other gap
+            long floor = Math.max(0, position - batchSize);
+            gaps.clear();
+            recordGaps(floor, jdbcTemplate.queryForList(RECENT_CHANGE_IDS_SQL, Long.class, floor, position));
+            lastAppliedChangeId = position;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${products.replica.sync.interval-ms:5000}")
+    public void sync() {
+        lock.lock();
+        try {
+            replayChanges();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void replayChanges() {
+        if (!productsReplica.isLoaded() || lastAppliedChangeId < 0) {
+            return;
+        }
+        try {
+            long failedWritesBefore = productsReplica.failedWriteCount();
+            long highWaterMark = jdbcTemplate.queryForObject(HIGH_WATER_MARK_SQL, Long.class);
+            boolean gapsApplied = applyGaps();
+            while (lastAppliedChangeId < highWaterMark) {
+                if (!applyNextBatch()) {
+                    break;
+                }
+            }
+            if (gapsApplied && lastAppliedChangeId >= highWaterMark) {
+                productsReplica.markRepaired(failedWritesBefore);
+            }
+            long pruneUpTo = gaps.stream().mapToLong(gap -> gap.from() - 1).min().orElse(lastAppliedChangeId);
+            jdbcTemplate.update(PRUNE_SQL, Timestamp.from(Instant.now().minus(retention)), Math.min(pruneUpTo, lastAppliedChangeId));
+        } catch (RuntimeException e) {
+            logger.error("Replica sync failed, will retry: {}", e.getMessage());
+        } finally {
+            updateLag();
+        }
+    }
+
+    private boolean applyNextBatch() {
+        List<Long> changeIds = new ArrayList<>();
+        Set<UUID> changedIds = new LinkedHashSet<>();
+        jdbcTemplate.query(CHANGES_SQL, rs -> {
+            changeIds.add(rs.getLong("change_id"));
+            changedIds.add(rs.getObject("id_product", UUID.class));
+        }, lastAppliedChangeId, batchSize);
+        if (changeIds.isEmpty() || !apply(changedIds)) {
+            return false;
+        }
+        recordGaps(lastAppliedChangeId, changeIds);
+        lastAppliedChangeId = changeIds.get(changeIds.size() - 1);
+        logger.debug("Replica sync applied {} changes up to change {}", changeIds.size(), lastAppliedChangeId);
+        return true;
+    }
+
+    /**
+     * Applies the changes that showed up in a gap since the last run, and drops the gaps that
+     * have been open longer than {@code gap-timeout}.
+     *
+     * @return whether every change found was applied
+     */
+    private boolean applyGaps() {
+        boolean applied = true;
+        Instant expiry = Instant.now().minus(gapTimeout);
+        List<Gap> open = new ArrayList<>();
+        for (Gap gap : gaps) {
+            List<Long> changeIds = new ArrayList<>();
+            Set<UUID> changedIds = new LinkedHashSet<>();
+            jdbcTemplate.query(GAP_CHANGES_SQL, rs -> {
+                changeIds.add(rs.getLong("change_id"));
+                changedIds.add(rs.getObject("id_product", UUID.class));
+            }, gap.from(), gap.to());
+            if (changeIds.isEmpty()) {
+                if (gap.seenAt().isAfter(expiry)) {
+                    open.add(gap);
+                }
+                continue;
+            }
+            if (!apply(changedIds)) {
+                applied = false;
+                open.add(gap);
+                continue;
+            }
+            logger.debug("Replica sync applied {} late changes between {} and {}", changeIds.size(), gap.from(), gap.to());
+            // what is left of the gap around the late changes stays open
+            long previous = gap.from() - 1;
+            for (long changeId : changeIds) {
+                if (changeId > previous + 1 && gap.seenAt().isAfter(expiry)) {
+                    open.add(new Gap(previous + 1, changeId - 1, gap.seenAt()));
+                }
+                previous = changeId;
+            }
+            if (gap.to() > previous && gap.seenAt().isAfter(expiry)) {
+                open.add(new Gap(previous + 1, gap.to(), gap.seenAt()));
+            }
+        }
+        gaps.clear();
+        gaps.addAll(open);
+        return applied;
+    }
+
+    private void recordGaps(long after, List<Long> changeIds) {
+        Instant now = Instant.now();
+        long previous = after;
+        for (long changeId : changeIds) {
+            if (changeId > previous + 1) {
+                gaps.add(new Gap(previous + 1, changeId - 1, now));
+            }
+            previous = changeId;
+        }
+    }
+
+    /**
+     * Brings the replica and the name index in line with the current rows of the changed ids.
+     *
+     * @return whether the replica took the writes
+     */
+    private boolean apply(Set<UUID> changedIds) {
+        List<ProductModel> current = jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(ROWS_SQL);
+            Array ids = connection.createArrayOf("uuid", changedIds.toArray());
+            ps.setArray(1, ids);
+            return ps;
+        }, (rs, rowNum) -> {
+            ProductModel product = new ProductModel(rs.getObject("id_product", UUID.class), rs.getString("name"), rs.getBigDecimal("value"));
+            product.setVersion(rs.getLong("version"));
+            return product;
+        });
+
+        Set<UUID> deletedIds = new LinkedHashSet<>(changedIds);
+        current.forEach(product -> deletedIds.remove(product.getIdProduct()));
+
+        productNameIndex.upsertAll(current);
+        productNameIndex.removeAll(deletedIds);
+        return productsReplica.upsertAll(current) && productsReplica.deleteAll(deletedIds);
+    }
+
+    private void updateLag() {
+        if (lastAppliedChangeId < 0) {
+            return;
+        }
+        try {
+            Long highWaterMark = jdbcTemplate.queryForObject(HIGH_WATER_MARK_SQL, Long.class);
+            lagChanges = highWaterMark == null ? 0 : Math.max(0, highWaterMark - lastAppliedChangeId);
+            Timestamp oldestPending = jdbcTemplate.queryForObject(OLDEST_PENDING_SQL, Timestamp.class, lastAppliedChangeId);
+            lagSeconds = oldestPending == null ? 0 : Duration.between(oldestPending.toInstant(), Instant.now()).toMillis() / 1000.0;
+        } catch (RuntimeException e) {
+            logger.warn("Could not measure replica lag: {}", e.getMessage());
+        }
+    }
+
+    public long getLastAppliedChangeId() {
+        return lastAppliedChangeId;
+    }
+}
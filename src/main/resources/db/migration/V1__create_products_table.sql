@@ -0,0 +1,6 @@
+-- Existing databases already have this table (it used to be created by Hibernate), hence IF NOT EXISTS.
+CREATE TABLE IF NOT EXISTS "tb products" (
+    id_product UUID PRIMARY KEY,
+    name       VARCHAR(255),
+    value      NUMERIC(38, 2)
+);
@@ -0,0 +1,26 @@
+-- Outbox of product changes, filled by a trigger so that writes made outside the application
+-- reach the in-memory replica too. Only the id is logged; the sync reads the current row.
+CREATE TABLE IF NOT EXISTS product_change_log (
+    change_id  BIGSERIAL   PRIMARY KEY,
+    id_product UUID        NOT NULL,
+    operation  CHAR(1)     NOT NULL,
+    changed_at TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+CREATE INDEX IF NOT EXISTS idx_product_change_log_changed_at ON product_change_log (changed_at);
+
+CREATE OR REPLACE FUNCTION log_product_change() RETURNS trigger AS $$
+BEGIN
+    IF (TG_OP = 'DELETE') THEN
+        INSERT INTO product_change_log (id_product, operation) VALUES (OLD.id_product, 'D');
+        RETURN OLD;
+    END IF;
+    INSERT INTO product_change_log (id_product, operation) VALUES (NEW.id_product, 'U');
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS product_change_log_trigger ON "tb products";
+CREATE TRIGGER product_change_log_trigger
+    AFTER INSERT OR UPDATE OR DELETE ON "tb products"
+    FOR EACH ROW EXECUTE FUNCTION log_product_change();
@@ -0,0 +1,10 @@
+-- Indexes behind GET /products/query and the keyset pages of GET /products.
+
+-- ordering by name (ties broken by id), also the seek index of the keyset pagination
+CREATE INDEX IF NOT EXISTS idx_products_name_id ON "tb products" (name, id_product);
+
+-- name LIKE 'prefix%' can only use a plain index under the C collation, text_pattern_ops works with any
+CREATE INDEX IF NOT EXISTS idx_products_name_pattern ON "tb products" (name text_pattern_ops);
+
+-- value ranges and ordering by value
+CREATE INDEX IF NOT EXISTS idx_products_value_id ON "tb products" (value, id_product);
@@ -0,0 +1,6 @@
+-- Id of the product in the fake store, the natural key of POST /saveDB imports. Products created
+-- through this API have none, and a unique index allows any number of NULLs.
+ALTER TABLE "tb products" ADD COLUMN IF NOT EXISTS external_id BIGINT;
+
+-- arbiter index of INSERT ... ON CONFLICT (external_id)
+CREATE UNIQUE INDEX IF NOT EXISTS uq_products_external_id ON "tb products" (external_id);
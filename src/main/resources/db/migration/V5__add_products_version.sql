@@ -0,0 +1,3 @@
+-- Optimistic lock of a product, bumped by every update. Updates and deletes that name a version
+-- only apply while the row still has it, in the same statement.
+ALTER TABLE "tb products" ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,70 @@
+package com.dev.ProductsAPI.benchmarks;
+
+import com.dev.ProductsAPI.repository.primary.ProductRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Wires the JPA stack by hand on top of an in-memory H2 database, so benchmarks can drive the
+ * real repositories and services without starting the Spring context (or PostgreSQL). Tests
+ * that need the real persistence behavior use it too.
+ */
+public final class BenchmarkPersistence implements AutoCloseable {
+
+    public final HikariDataSource dataSource;
+    public final EntityManagerFactory entityManagerFactory;
+    public final JpaTransactionManager transactionManager;
+    public final ProductRepository productRepository;
+
+    public BenchmarkPersistence(String databaseName) {
+        this(databaseName, Map.of());
+    }
+
+    /**
+     * @param jpaProperties added to, or overriding, the Hibernate settings of the benchmarks
+     */
+    public BenchmarkPersistence(String databaseName, Map<String, Object> jpaProperties) {
+        dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url("jdbc:h2:mem:" + databaseName + ";DB_CLOSE_DELAY=-1;MODE=PostgreSQL")
+                .driverClassName("org.h2.Driver")
+                .username("sa")
+                .password("")
+                .build();
+
+        LocalContainerEntityManagerFactoryBean factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setPackagesToScan("com.dev.ProductsAPI.models");
+        factoryBean.setPersistenceUnitName(databaseName);
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        Map<String, Object> properties = new HashMap<>(Map.of(
+                "hibernate.hbm2ddl.auto", "create-drop",
+                "hibernate.globally_quoted_identifiers", "true",
+                "hibernate.jdbc.batch_size", "500",
+                "hibernate.order_inserts", "true",
+                "hibernate.order_updates", "true"));
+        properties.putAll(jpaProperties);
+        factoryBean.setJpaPropertyMap(properties);
+        factoryBean.afterPropertiesSet();
+
+        entityManagerFactory = factoryBean.getObject();
+        transactionManager = new JpaTransactionManager(entityManagerFactory);
+        productRepository = new JpaRepositoryFactory(SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory))
+                .getRepository(ProductRepository.class);
+    }
+
+    @Override
+    public void close() {
+        entityManagerFactory.close();
+        dataSource.close();
+    }
+}
@@ -0,0 +1,88 @@
+package com.dev.ProductsAPI.benchmarks;
+
+import com.dev.ProductsAPI.dtos.ProductRecordDto;
+import com.dev.ProductsAPI.mappers.ProductMapper;
+import com.dev.ProductsAPI.mappers.ProductMapperImpl;
+import com.dev.ProductsAPI.models.ProductModel;
+import com.dev.ProductsAPI.repository.secondary.ProductsReplica;
+import com.dev.ProductsAPI.repository.secondary.ReplicaStore;
+import com.dev.ProductsAPI.search.ProductNameIndex;
+import com.dev.ProductsAPI.services.ProductBulkIngestService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Items/sec of the chunked bulk ingest against the per-item loop that
+ * {@code ProductService.saveProducts} runs today (one save, one commit per item).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(ProductIngestBenchmark.ITEMS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ProductIngestBenchmark {
+
+    static final int ITEMS = 10_000;
+
+    @Param({"100", "500", "1000"})
+    int chunkSize;
+
+    BenchmarkPersistence persistence;
+    BenchmarkPersistence replica;
+    ProductsReplica productsReplica;
+    TransactionTemplate transactionTemplate;
+    ProductMapper productMapper;
+    ProductBulkIngestService productBulkIngestService;
+    List<ProductRecordDto> productRecordDtos;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        persistence = new BenchmarkPersistence("ingestBenchmark");
+        replica = new BenchmarkPersistence("ingestBenchmarkReplica");
+        productsReplica = new ProductsReplica(replica.dataSource, replica.transactionManager, Optional.empty(), ReplicaStore.H2);
+        transactionTemplate = new TransactionTemplate(persistence.transactionManager);
+        productMapper = new ProductMapperImpl();
+        productBulkIngestService = new ProductBulkIngestService(persistence.productRepository, productsReplica, new ProductNameIndex(),
+                productMapper, persistence.transactionManager, chunkSize);
+        productRecordDtos = IntStream.range(0, ITEMS)
+                .mapToObj(i -> new ProductRecordDto("product " + i, BigDecimal.valueOf(i, 2)))
+                .toList();
+    }
+
+    @Setup(Level.Iteration)
+    public void truncate() {
+        transactionTemplate.executeWithoutResult(status -> persistence.productRepository.deleteAllInBatch());
+        new TransactionTemplate(replica.transactionManager).executeWithoutResult(status -> replica.productRepository.deleteAllInBatch());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        persistence.close();
+        replica.close();
+    }
+
+    @Benchmark
+    public Object perItemLoop() {
+        int saved = 0;
+        for (ProductRecordDto productDto : productRecordDtos) {
+            ProductModel productModel = productMapper.toProductModel(productDto);
+            transactionTemplate.executeWithoutResult(status -> persistence.productRepository.save(productModel));
+            productsReplica.upsert(productModel);
+            saved++;
+        }
+        return saved;
+    }
+
+    @Benchmark
+    public Object chunkedBulkIngest() {
+        return productBulkIngestService.ingest(productRecordDtos);
+    }
+}
@@ -0,0 +1,133 @@
+package com.dev.ProductsAPI.benchmarks;
+
+import com.dev.ProductsAPI.dtos.ProductApiDTO;
+import com.dev.ProductsAPI.dtos.ProductRecordDto;
+import com.dev.ProductsAPI.mappers.ProductMapper;
+import com.dev.ProductsAPI.mappers.ProductMapperImpl;
+import com.dev.ProductsAPI.models.ProductModel;
+import com.dev.ProductsAPI.representation.ProductRepresentationAssembler;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.BeanUtils;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.web.HateoasPageableHandlerMethodArgumentResolver;
+import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the per-request mapping work, one page of products per operation: mapping fake store
+ * DTOs and {@link ProductRecordDto}s to {@link ProductModel} with the generated
+ * {@link ProductMapper} (against the reflective {@code BeanUtils.copyProperties} it replaced), the
+ * HAL assembly of a page by {@link ProductRepresentationAssembler} and serializing a product list with Jackson.
+ * Run with the GC profiler (on by default in the benchmark profile) and read
+ * {@code gc.alloc.rate.norm} for the bytes allocated per request.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ProductMappingBenchmark {
+
+    @Param({"20", "100"})
+    int pageSize;
+
+    ProductMapper productMapper;
+    ProductRepresentationAssembler productRepresentationAssembler;
+    ObjectMapper objectMapper;
+    Page<ProductModel> page;
+    List<ProductApiDTO> productApiDTOs;
+    List<ProductRecordDto> productRecordDtos;
+    List<ProductModel> products;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        productMapper = new ProductMapperImpl();
+        // the same defaults Spring Boot configures the application's mapper with
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        productApiDTOs = new ArrayList<>();
+        productRecordDtos = new ArrayList<>();
+        products = new ArrayList<>();
+        for (int i = 0; i < pageSize; i++) {
+            String name = "Product " + i;
+            BigDecimal value = BigDecimal.valueOf(1999 + i, 2);
+            ProductApiDTO productApiDTO = new ProductApiDTO();
+            productApiDTO.setExternalId((long) i);
+            productApiDTO.setName(name);
+            productApiDTO.setValue(value);
+            productApiDTOs.add(productApiDTO);
+            productRecordDtos.add(new ProductRecordDto(name, value));
+            products.add(new ProductModel(UUID.randomUUID(), name, value));
+        }
+
+        page = new PageImpl<>(products, PageRequest.of(0, pageSize), 10_000);
+        productRepresentationAssembler = new ProductRepresentationAssembler();
+        ReflectionTestUtils.setField(productRepresentationAssembler, "assembler",
+                new PagedResourcesAssembler<ProductModel>(new HateoasPageableHandlerMethodArgumentResolver(), null));
+
+        // links are built from the current request, as they are inside the controller
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/products");
+        request.setServerName("localhost");
+        request.setServerPort(8080);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    public List<ProductModel> mapProductApiDTOs() {
+        List<ProductModel> mapped = new ArrayList<>(productApiDTOs.size());
+        for (ProductApiDTO productApiDTO : productApiDTOs) {
+            mapped.add(productMapper.toProductModel(productApiDTO));
+        }
+        return mapped;
+    }
+
+    @Benchmark
+    public List<ProductModel> mapProductRecordDtos() {
+        List<ProductModel> mapped = new ArrayList<>(productRecordDtos.size());
+        for (ProductRecordDto productRecordDto : productRecordDtos) {
+            mapped.add(productMapper.toProductModel(productRecordDto));
+        }
+        return mapped;
+    }
+
+    @Benchmark
+    public List<ProductModel> copyProperties() {
+        List<ProductModel> copied = new ArrayList<>(productRecordDtos.size());
+        for (ProductRecordDto productRecordDto : productRecordDtos) {
+            ProductModel productModel = new ProductModel();
+            BeanUtils.copyProperties(productRecordDto, productModel);
+            copied.add(productModel);
+        }
+        return copied;
+    }
+
+    @Benchmark
+    public Object hateoasAssembly() {
+        return productRepresentationAssembler.toPagedModel(page);
+    }
+
+    @Benchmark
+    public byte[] serializeProducts() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(products);
+    }
+}
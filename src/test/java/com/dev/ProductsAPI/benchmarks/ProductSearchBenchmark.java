@@ -0,0 +1,63 @@
+package com.dev.ProductsAPI.benchmarks;
+
+import com.dev.ProductsAPI.models.ProductModel;
+import com.dev.ProductsAPI.search.ProductNameIndex;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency distribution of {@link ProductNameIndex#search} over a 1M product catalog. Sample time
+ * mode reports the percentiles, read p0.99 for the typeahead budget. Queries range from a broad
+ * one-letter prefix to a selective multi-word query.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class ProductSearchBenchmark {
+
+    private static final String[] WORDS = {
+            "oak", "pine", "walnut", "steel", "glass", "leather", "modern", "vintage", "compact", "deluxe",
+            "chair", "table", "desk", "lamp", "sofa", "shelf", "bench", "cabinet", "stool", "mirror"
+    };
+
+    @Param({"1000000"})
+    int products;
+
+    @Param({"c", "chair", "oak ch", "walnut desk 4242"})
+    String query;
+
+    ProductNameIndex productNameIndex;
+    Pageable pageable = PageRequest.of(0, 20);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        productNameIndex = new ProductNameIndex();
+        Random random = new Random(42);
+        List<ProductModel> batch = new ArrayList<>();
+        for (int i = 0; i < products; i++) {
+            String name = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + i;
+            batch.add(new ProductModel(UUID.randomUUID(), name, BigDecimal.valueOf(i, 2)));
+            if (batch.size() == 10_000) {
+                productNameIndex.upsertAll(batch);
+                batch.clear();
+            }
+        }
+        productNameIndex.upsertAll(batch);
+    }
+
+    @Benchmark
+    public Object search() {
+        return productNameIndex.search(query, pageable);
+    }
+}
@@ -0,0 +1,145 @@
+package com.dev.ProductsAPI.benchmarks;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.embedded.EmbeddedWebServerFactoryCustomizerAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Requests/sec of the servlet stack with platform against virtual request threads, at more
+ * concurrent requests than Tomcat has platform threads. The endpoints only block like the real
+ * ones do: {@code upstream} waits as long as a call to the fake store, {@code jdbc} holds a pooled
+ * connection for a query round trip. Platform threads should cap the first near
+ * threads / latency, while with virtual threads only the connection pool should cap the second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(ServletThreadingBenchmark.REQUESTS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ServletThreadingBenchmark {
+
+    static final int REQUESTS = 1000;
+    static final int TOMCAT_THREADS = 200;
+    static final int POOL_SIZE = 20;
+    static final long UPSTREAM_LATENCY_MILLIS = 50;
+    static final long QUERY_LATENCY_MILLIS = 10;
+
+    @Param({"false", "true"})
+    boolean virtualThreads;
+
+    @Param({"upstream", "jdbc"})
+    String endpoint;
+
+    ConfigurableApplicationContext context;
+    HttpClient httpClient;
+    HttpRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(LoadApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .properties("server.port=0",
+                        "server.tomcat.threads.max=" + TOMCAT_THREADS,
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=warn")
+                .run();
+        int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/load/" + endpoint)).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int concurrentRequests() {
+        CompletableFuture<?>[] responses = new CompletableFuture<?>[REQUESTS];
+        for (int i = 0; i < REQUESTS; i++) {
+            responses[i] = httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding());
+        }
+        CompletableFuture.allOf(responses).join();
+        return responses.length;
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ImportAutoConfiguration({
+            ServletWebServerFactoryAutoConfiguration.class,
+            EmbeddedWebServerFactoryCustomizerAutoConfiguration.class,
+            DispatcherServletAutoConfiguration.class,
+            WebMvcAutoConfiguration.class,
+            HttpMessageConvertersAutoConfiguration.class,
+            JacksonAutoConfiguration.class
+    })
+    @Import(LoadController.class)
+    static class LoadApplication {
+
+        @Bean(destroyMethod = "close")
+        HikariDataSource dataSource() {
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url("jdbc:h2:mem:threadingBenchmark;DB_CLOSE_DELAY=-1")
+                    .username("sa")
+                    .password("")
+                    .build();
+            dataSource.setMaximumPoolSize(POOL_SIZE);
+            return dataSource;
+        }
+    }
+
+    @RestController
+    static class LoadController {
+
+        private final DataSource dataSource;
+
+        LoadController(DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        @GetMapping("/load/upstream")
+        public String upstream() throws InterruptedException {
+            Thread.sleep(UPSTREAM_LATENCY_MILLIS);
+            return "ok";
+        }
+
+        @GetMapping("/load/jdbc")
+        public String jdbc() throws SQLException, InterruptedException {
+            try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+                statement.execute("SELECT 1");
+                // the round trip to PostgreSQL, spent outside H2 so no lock is held while waiting
+                Thread.sleep(QUERY_LATENCY_MILLIS);
+            }
+            return "ok";
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.dev.ProductsAPI.client;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the client against a stub fake store served by the JDK HTTP server.
+ */
+class FakeStoreClientTest {
+
+    private static final String PRODUCTS = "[{\"title\":\"prod1\",\"price\":10.5},{\"title\":\"prod2\",\"price\":20}]";
+
+    record StubResponse(int status, String body, long delayMillis) { }
+
+    HttpServer server;
+    Queue<StubResponse> responses = new ConcurrentLinkedQueue<>();
+    AtomicInteger requests = new AtomicInteger();
+    Queue<String> conditions = new ConcurrentLinkedQueue<>();
+    FakeStoreClient fakeStoreClient;
+
+    @BeforeEach
+    private void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/products", exchange -> {
+            requests.incrementAndGet();
+            conditions.add(String.valueOf(exchange.getRequestHeaders().getFirst("If-None-Match")));
+            StubResponse response = responses.isEmpty() ? new StubResponse(500, "", 0) : responses.poll();
+            try {
+                Thread.sleep(response.delayMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = response.body().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.getResponseHeaders().add("ETag", "\"v1\"");
+            exchange.getResponseHeaders().add("Last-Modified", "Wed, 21 Oct 2015 07:28:00 GMT");
+            exchange.sendResponseHeaders(response.status(), body.length == 0 ? -1 : body.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(body);
+            }
+        });
+        server.start();
+
+        fakeStoreClient = new FakeStoreClient(WebClient.builder(), "http://localhost:" + server.getAddress().getPort(),
+                Duration.ofSeconds(1), Duration.ofMillis(500), Duration.ofSeconds(5), 2, Duration.ofMillis(10), 2, Duration.ofMinutes(1), DataSize.ofMegabytes(1));
+    }
+
+    @AfterEach
+    private void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void should_Retry_Server_Errors_And_Return_Products() {
+        responses.add(new StubResponse(503, "", 0));
+        responses.add(new StubResponse(502, "", 0));
+        responses.add(new StubResponse(200, PRODUCTS, 0));
+
+        FakeStoreResponse response = fakeStoreClient.fetchProducts(null).block();
+
+        assertFalse(response.isNotModified());
+        assertEquals(PRODUCTS, new String(response.body(), StandardCharsets.UTF_8));
+        assertEquals("\"v1\"", response.etag());
+        assertEquals(3, requests.get());
+    }
+
+    @Test
+    public void should_Retry_After_Response_Timeout() {
+        responses.add(new StubResponse(200, PRODUCTS, 1500));
+        responses.add(new StubResponse(200, PRODUCTS, 0));
+
+        FakeStoreResponse response = fakeStoreClient.fetchProducts(null).block();
+
+        assertEquals(PRODUCTS, new String(response.body(), StandardCharsets.UTF_8));
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    public void should_Send_Validators_And_Return_Not_Modified() {
+        responses.add(new StubResponse(200, PRODUCTS, 0));
+        responses.add(new StubResponse(304, "", 0));
+
+        FakeStoreResponse first = fakeStoreClient.fetchProducts(null).block();
+        FakeStoreResponse second = fakeStoreClient.fetchProducts(first).block();
+
+        assertEquals("Wed, 21 Oct 2015 07:28:00 GMT", first.lastModified());
+        assertTrue(second.isNotModified());
+        assertEquals(0, second.body().length);
+        assertEquals(List.of("null", "\"v1\""), List.copyOf(conditions));
+    }
+
+    @Test
+    public void should_Not_Retry_Client_Errors_Nor_Count_Them_As_Failures() {
+        responses.add(new StubResponse(404, "", 0));
+        responses.add(new StubResponse(404, "", 0));
+
+        assertThrows(WebClientResponseException.NotFound.class, () -> fakeStoreClient.fetchProducts(null).block());
+        assertThrows(WebClientResponseException.NotFound.class, () -> fakeStoreClient.fetchProducts(null).block());
+
+        assertEquals(2, requests.get());
+        assertEquals(CircuitBreaker.State.CLOSED, fakeStoreClient.getCircuitState());
+    }
+
+    @Test
+    public void should_Open_Circuit_After_Consecutive_Failures_And_Fail_Fast() {
+        assertThrows(WebClientResponseException.InternalServerError.class, () -> fakeStoreClient.fetchProducts(null).block());
+        assertThrows(WebClientResponseException.InternalServerError.class, () -> fakeStoreClient.fetchProducts(null).block());
+        int requestsBeforeOpen = requests.get();
+
+        assertThrows(CircuitBreaker.CircuitOpenException.class, () -> fakeStoreClient.fetchProducts(null).block());
+
+        assertEquals(CircuitBreaker.State.OPEN, fakeStoreClient.getCircuitState());
+        assertEquals(6, requestsBeforeOpen);
+        assertEquals(requestsBeforeOpen, requests.get());
+    }
+}
@@ -0,0 +1,80 @@
+package com.dev.ProductsAPI.config.init;
+
+import com.dev.ProductsAPI.models.ProductModel;
+import com.dev.ProductsAPI.repository.primary.ProductRepository;
+import com.dev.ProductsAPI.repository.secondary.ProductsReplica;
+import com.dev.ProductsAPI.search.ProductNameIndex;
+import com.dev.ProductsAPI.sync.ProductsReplicaSync;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductsMemoryDBInitializerTest {
+
+    @Mock
+    ProductRepository productRepository;
+
+    @Mock
+    ProductsReplica productsReplica;
+
+    @Mock
+    ProductsReplicaSync productsReplicaSync;
+
+    @Mock
+    ProductNameIndex productNameIndex;
+
+    ProductsMemoryDBInitializer productsMemoryDBInitializer;
+
+    ProductModel product;
+
+    @BeforeEach
+    private void setUp() {
+        productsMemoryDBInitializer = new ProductsMemoryDBInitializer(productRepository, productsReplica, productsReplicaSync,
+                productNameIndex, 10, 2, false, Duration.ofMillis(1), Duration.ofMillis(2));
+        product = new ProductModel(UUID.randomUUID(), "prod1", new BigDecimal("10.0"));
+    }
+
+    @Test
+    public void should_Retry_A_Failed_Warm_Up_Until_The_Replica_Is_Loaded() {
+        when(productsReplicaSync.getLastAppliedChangeId()).thenReturn(-1L, 0L);
+        when(productRepository.findFirstBatch(any()))
+                .thenThrow(new DataAccessResourceFailureException("connection refused"))
+                .thenThrow(new DataAccessResourceFailureException("connection refused"))
+                .thenReturn(List.of(product));
+        when(productsReplica.upsertAll(List.of(product))).thenReturn(true);
+
+        productsMemoryDBInitializer.warmUpUntilLoaded();
+
+        assertEquals(ProductsMemoryDBInitializer.WarmupState.LOADED, productsMemoryDBInitializer.getState());
+        assertEquals(3, productsMemoryDBInitializer.getAttempts());
+        assertEquals(1, productsMemoryDBInitializer.getLoadedRows());
+        verify(productsReplica).markLoaded();
+        // the retries replay the changes from the position taken before the first copy
+        verify(productsReplicaSync, times(1)).startFromCurrentPosition();
+    }
+
+    @Test
+    public void should_Report_Out_Of_Service_While_A_Failed_Warm_Up_Waits_For_Its_Retry() {
+        when(productRepository.findFirstBatch(any())).thenThrow(new DataAccessResourceFailureException("connection refused"));
+
+        productsMemoryDBInitializer.warmUp();
+
+        ProductsReplicaHealthIndicator healthIndicator = new ProductsReplicaHealthIndicator(productsMemoryDBInitializer);
+        assertEquals(Status.OUT_OF_SERVICE, healthIndicator.health().getStatus());
+        assertEquals("connection refused", healthIndicator.health().getDetails().get("error"));
+        verify(productsReplica, never()).markLoaded();
+    }
+}
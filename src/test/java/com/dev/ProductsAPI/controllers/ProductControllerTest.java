@@ -1,12 +1,26 @@
 package com.dev.ProductsAPI.controllers;
 
 
+import com.dev.ProductsAPI.dtos.ImportJobStatus;
+import com.dev.ProductsAPI.dtos.ProductBatchGetResult;
+import com.dev.ProductsAPI.dtos.ProductBulkMutationReport;
+import com.dev.ProductsAPI.dtos.ProductPatchDto;
 import com.dev.ProductsAPI.dtos.ProductRecordDto;
-import com.dev.ProductsAPI.exceptions.ApiOutOfServiceException;
+import com.dev.ProductsAPI.dtos.ProductRefDto;
+import com.dev.ProductsAPI.dtos.ProductSyncReport;
+import com.dev.ProductsAPI.exceptions.InvalidQueryException;
+import com.dev.ProductsAPI.exceptions.JobNotFoundException;
 import com.dev.ProductsAPI.exceptions.NoContentException;
 import com.dev.ProductsAPI.exceptions.ProductNotFoundException;
 import com.dev.ProductsAPI.exceptions.ProductSaveException;
+import com.dev.ProductsAPI.exceptions.ProductVersionConflictException;
+import com.dev.ProductsAPI.jobs.ImportJobService;
 import com.dev.ProductsAPI.models.ProductModel;
+import com.dev.ProductsAPI.projections.ProductFieldSet;
+import com.dev.ProductsAPI.projections.ProductIdView;
+import com.dev.ProductsAPI.projections.ProductNameView;
+import com.dev.ProductsAPI.representation.LeanProductPage;
+import com.dev.ProductsAPI.representation.ProductMediaTypes;
 import com.dev.ProductsAPI.repository.primary.ProductRepository;
 import com.dev.ProductsAPI.repository.secondary.ProductsMemoryRepository;
 import com.dev.ProductsAPI.services.ProductService;
@@ -23,10 +37,10 @@ import org.springframework.boot.test.context.SpringBootTest;
 
 
 import org.springframework.boot.test.mock.mockito.MockBean;
-import org.springframework.data.domain.Pageable;
-import org.springframework.hateoas.EntityModel;
-import org.springframework.hateoas.PagedModel;
-import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.ResultMatcher;
@@ -34,16 +48,15 @@ import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.concurrent.RejectedExecutionException;
 
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
 
 @AutoConfigureMockMvc
@@ -93,22 +106,28 @@ class ProductControllerTest {
         @MockBean
         ProductService mockedProductService;
 
+        @MockBean
+        ImportJobService mockedImportJobService;
+
         @Autowired
         MockMvc mockMvc;
 
         @Test
-        public void mocked_Post_To_saveDB_Should_Return_ResponseEntityOK_With_List_Of_Products() throws Exception {
-
+        public void mocked_Post_To_saveDB_Should_Return_ResponseEntityAccepted_With_Import_Job() throws Exception {
 
+            UUID jobId = UUID.randomUUID();
             //retorno do metodo mockado para passar ao body da resposta
-            when(mockedProductService.saveProductsIntoDB()).thenReturn(mockProductModelList);
+            when(mockedImportJobService.submit()).thenReturn(
+                    new ImportJobStatus(jobId, "QUEUED", 0, 0, 0, Instant.now(), null, null, null, null));
 
 
             ResultActions result = mockMvc.perform(MockMvcRequestBuilders.post("/saveDB"));
-            ResultMatcher resultMatcher = MockMvcResultMatchers.status().isOk();
+            ResultMatcher resultMatcher = MockMvcResultMatchers.status().isAccepted();
 
 
             result.andExpect(resultMatcher)
+                    .andExpect(MockMvcResultMatchers.header().string("Location", "http://localhost/jobs/" + jobId))
+                    .andExpect(MockMvcResultMatchers.jsonPath("$.phase").value("QUEUED"))
                     .andDo(resultHandler -> {
                         System.out.println("BODY  -> " + resultHandler.getResponse().getContentAsString());
                     });
@@ -136,22 +155,16 @@ class ProductControllerTest {
 
 
         @Test
-        public void non_MOCKED_Post_To_saveDB_Should_Return_ResponseEntityOK_With_List_Of_Products() throws Exception {
-
-            //quando uma invocação de um método do banco primario é feita
-            //o argumento dessa invocação é salvo
-            //e logo após é feita uma invocação do método equivalente ao método do banco primario, mas no banco secundário
-            when(mockedPrimaryProductRepository.save(any(ProductModel.class))).then(invocationOnMock -> {
-                ProductModel arg = invocationOnMock.getArgument(0);
-                return productsMemoryRepository.save(arg);
-            });
-
+        public void non_MOCKED_Post_To_saveDB_Should_Return_ResponseEntityAccepted_With_Import_Job() throws Exception {
 
+            //o import roda em segundo plano, a resposta só traz o job criado
             ResultActions result = mockMvc.perform(MockMvcRequestBuilders.post("/saveDB"));
-            ResultMatcher resultMatcher = MockMvcResultMatchers.status().isOk();
+            ResultMatcher resultMatcher = MockMvcResultMatchers.status().isAccepted();
 
 
             result.andExpect(resultMatcher)
+                    .andExpect(MockMvcResultMatchers.header().exists("Location"))
+                    .andExpect(MockMvcResultMatchers.jsonPath("$.id").exists())
                     .andDo(resultHandler -> {
                         System.out.println("BODY  -> " + resultHandler.getResponse().getContentAsString());
                     });
@@ -169,6 +182,9 @@ class ProductControllerTest {
         @MockBean
         ProductService mockedProductService;
 
+        @MockBean
+        ImportJobService mockedImportJobService;
+
         @Autowired
         MockMvc mockMvc;
 
@@ -177,7 +193,7 @@ class ProductControllerTest {
 
         @Test
         public void post_To_saveDB_Should_Return_ResponseEntity_ServiceUnavailable() throws Exception {
-            when(mockedProductService.saveProductsIntoDB()).thenThrow(new ApiOutOfServiceException("The API fake store is out of service"));
+            when(mockedImportJobService.submit()).thenThrow(new RejectedExecutionException("Task rejected"));
 
             ResultActions result = mockMvc.perform(MockMvcRequestBuilders.post("/saveDB"));
             ResultMatcher resultMatcher = MockMvcResultMatchers.status().isServiceUnavailable();
@@ -190,36 +206,45 @@ class ProductControllerTest {
         }
 
         @Test
-        public void post_To_saveDB_Should_Return_ResponseEntity_NotFound() throws Exception {
-            when(mockedProductService.saveProductsIntoDB()).thenThrow(new ProductNotFoundException("No products found") {
-            });
+        public void post_To_saveDB_Should_Return_ResponseEntity_InternalServerError() throws Exception {
+            //Throwing a random unchecked exception(RuntimeException) just to get caught as Exception.class in the controller
+            when(mockedImportJobService.submit()).thenThrow(new RuntimeException());
+
+            Throwable throwable = assertThrows(Exception.class, () -> mockedImportJobService.submit());
 
             ResultActions result = mockMvc.perform(MockMvcRequestBuilders.post("/saveDB"));
-            ResultMatcher resultMatcher = MockMvcResultMatchers.status().isNotFound();
+            ResultMatcher resultMatcher = MockMvcResultMatchers.status().isInternalServerError();
 
 
             result.andExpect(resultMatcher)
                     .andDo(resultHandler -> {
                         System.out.println("BODY  -> " + resultHandler.getResponse().getContentAsString());
+                        assertEquals("Internal Server Error", resultHandler.getResponse().getContentAsString());
                     });
         }
 
         @Test
-        public void post_To_saveDB_Should_Return_ResponseEntity_InternalServerError() throws Exception {
-            //Throwing a random unchecked exception(RuntimeException) just to get caught as Exception.class in the controller
-            when(mockedProductService.saveProductsIntoDB()).thenThrow(new RuntimeException());
+        public void get_To_jobs_Should_Return_ResponseEntityOK_With_Job_Progress() throws Exception {
+            UUID jobId = UUID.randomUUID();
+            when(mockedImportJobService.getStatus(jobId)).thenReturn(new ImportJobStatus(jobId, "COMPLETED", 5, 5, 250.0,
+                    Instant.now(), Instant.now(), Instant.now(), null, new ProductSyncReport(true, 5, 2, 1, 2)));
 
-            Throwable throwable = assertThrows(Exception.class, () -> mockedProductService.saveProductsIntoDB());
+            ResultActions result = mockMvc.perform(MockMvcRequestBuilders.get("/jobs/" + jobId));
 
-            ResultActions result = mockMvc.perform(MockMvcRequestBuilders.post("/saveDB"));
-            ResultMatcher resultMatcher = MockMvcResultMatchers.status().isInternalServerError();
+            result.andExpect(MockMvcResultMatchers.status().isOk())
+                    .andExpect(MockMvcResultMatchers.jsonPath("$.itemsProcessed").value(5))
+                    .andExpect(MockMvcResultMatchers.jsonPath("$.report.inserted").value(2));
+        }
 
+        @Test
+        public void get_To_jobs_Should_Return_ResponseEntity_NotFound() throws Exception {
+            UUID jobId = UUID.randomUUID();
+            when(mockedImportJobService.getStatus(jobId)).thenThrow(new JobNotFoundException("Job not found"));
 
-            result.andExpect(resultMatcher)
-                    .andDo(resultHandler -> {
-                        System.out.println("BODY  -> " + resultHandler.getResponse().getContentAsString());
-                        assertEquals("Internal Server Error", resultHandler.getResponse().getContentAsString());
-                    });
+            ResultActions result = mockMvc.perform(MockMvcRequestBuilders.get("/jobs/" + jobId));
+
+            result.andExpect(MockMvcResultMatchers.status().isNotFound())
+                    .andExpect(MockMvcResultMatchers.content().string("Job not found"));
         }
 
         @Test
@@ -288,15 +313,12 @@ class ProductControllerTest {
             int sizeOfPagedModelList = 2;
             int totalElementsofList = mockProductModelList.size();
 
-            List<EntityModel<ProductModel>> entityModelList = mockProductModelList.stream()
-                    .map(product -> EntityModel.of(product, WebMvcLinkBuilder.linkTo(ProductController.class).slash(product.getIdProduct()).withSelfRel()))
-                    .collect(Collectors.toList());
-
-            PagedModel<EntityModel<ProductModel>> pagedModel = PagedModel.of(
-                    entityModelList.subList(pageOfPagedModelList * sizeOfPagedModelList, Math.min((pageOfPagedModelList + 1) * sizeOfPagedModelList, entityModelList.size())),
-                    new PagedModel.PageMetadata(sizeOfPagedModelList,pageOfPagedModelList,totalElementsofList));
+            Page<ProductModel> page = new PageImpl<>(
+                    mockProductModelList.subList(pageOfPagedModelList * sizeOfPagedModelList, Math.min((pageOfPagedModelList + 1) * sizeOfPagedModelList, mockProductModelList.size())),
+                    PageRequest.of(pageOfPagedModelList, sizeOfPagedModelList),
+                    totalElementsofList);
 
-            when(mockedProductService.getAllProducts(any())).thenReturn(pagedModel);
+            when(mockedProductService.getAllProducts(any())).thenReturn(page);
 
 
             ResultActions result = mockMvc.perform(
@@ -308,8 +330,75 @@ class ProductControllerTest {
             result.andExpect(resultMatcher)
                     .andDo(resultHandler -> {
                         System.out.println("BODY  -> " + resultHandler.getResponse().getContentAsString());
-//                        assertEquals(objectMapper.writeValueAsString(pagedModel), resultHandler.getResponse().getContentAsString());
+                        assertTrue(resultHandler.getResponse().getContentAsString()
+                                .contains("\"href\":\"http://localhost/products/" + product1.getIdProduct() + "\""));
+                    });
+        }
+
+        @Test
+        public void get_To_products_Should_Return_Lean_Page_Without_Links_When_Accepted() throws Exception {
+            Page<ProductModel> page = new PageImpl<>(List.of(product1, product2), PageRequest.of(0, 2), mockProductModelList.size());
+
+            when(mockedProductService.getAllProducts(any())).thenReturn(page);
+
+
+            ResultActions result = mockMvc.perform(
+                    MockMvcRequestBuilders.get("/products?page=0&size=2").accept(ProductMediaTypes.LEAN_JSON)
+            );
+            ResultMatcher resultMatcher = MockMvcResultMatchers.status().isOk();
+
+
+            result.andExpect(resultMatcher)
+                    .andExpect(MockMvcResultMatchers.content().contentType(ProductMediaTypes.LEAN_JSON))
+                    .andDo(resultHandler -> {
+                        System.out.println("BODY  -> " + resultHandler.getResponse().getContentAsString());
+                        assertEquals(objectMapper.writeValueAsString(LeanProductPage.of(page)), resultHandler.getResponse().getContentAsString());
+                        assertFalse(resultHandler.getResponse().getContentAsString().contains("links"));
+                    });
+        }
+
+        @Test
+        public void get_To_products_With_Fields_Should_Return_Only_The_Requested_Fields() throws Exception {
+            SpelAwareProxyProjectionFactory projectionFactory = new SpelAwareProxyProjectionFactory();
+            Page<ProductIdView> page = new PageImpl<>(List.of(
+                    projectionFactory.createProjection(ProductNameView.class, product1),
+                    projectionFactory.createProjection(ProductNameView.class, product2)), PageRequest.of(0, 2), mockProductModelList.size());
+
+            when(mockedProductService.getAllProducts(any(), eq(ProductFieldSet.NAME))).thenReturn(page);
+
+
+            ResultActions result = mockMvc.perform(
+                    MockMvcRequestBuilders.get("/products?page=0&size=2&fields=name")
+            );
+            ResultMatcher resultMatcher = MockMvcResultMatchers.status().isOk();
+
+
+            result.andExpect(resultMatcher)
+                    .andDo(resultHandler -> {
+                        System.out.println("BODY  -> " + resultHandler.getResponse().getContentAsString());
+                        assertTrue(resultHandler.getResponse().getContentAsString().contains("\"name\":\"prod1\""));
+                        assertTrue(resultHandler.getResponse().getContentAsString()
+                                .contains("\"href\":\"http://localhost/products/" + product1.getIdProduct() + "\""));
+                        assertFalse(resultHandler.getResponse().getContentAsString().contains("\"value\""));
+                    });
+            verify(mockedProductService, never()).getAllProducts(any());
+        }
+
+        @Test
+        public void get_To_products_With_Unknown_Field_Should_Return_ResponseEntity_BadRequest() throws Exception {
+            ResultActions result = mockMvc.perform(
+                    MockMvcRequestBuilders.get("/products?fields=name,links")
+            );
+            ResultMatcher resultMatcher = MockMvcResultMatchers.status().isBadRequest();
+
+            Throwable throwable = assertThrows(InvalidQueryException.class, () -> ProductFieldSet.parse("name,links"));
+
+            result.andExpect(resultMatcher)
+                    .andDo(resultHandler -> {
+                        System.out.println("BODY  -> " + resultHandler.getResponse().getContentAsString());
+                        assertEquals(throwable.getMessage(), resultHandler.getResponse().getContentAsString());
                     });
+            verifyNoInteractions(mockedProductService);
         }
 
         @Test
@@ -353,7 +442,7 @@ class ProductControllerTest {
         @Test
         public void get_To_products_ID_Should_Return_ResponseEntity_OK_With_A_Single_Product() throws Exception {
             when(mockedProductService.getOneProduct(product1.getIdProduct()))
-                    .thenReturn(product1.add(linkTo(methodOn(ProductController.class).getAllProducts(Pageable.unpaged())).withRel("Products List:")));
+                    .thenReturn(product1);
 
 
             ResultActions result = mockMvc.perform(
@@ -364,9 +453,62 @@ class ProductControllerTest {
             result.andExpect(resultMatcher)
                     .andDo(resultHandler -> {
                         System.out.println("BODY  -> " + resultHandler.getResponse().getContentAsString());
+                        assertTrue(resultHandler.getResponse().getContentAsString().contains("Products List:"));
                     });
         }
 
+        @Test
+        public void get_To_products_ID_Should_Return_Lean_Product_When_Accepted() throws Exception {
+            when(mockedProductService.getOneProduct(product1.getIdProduct())).thenReturn(product1);
+
+
+            ResultActions result = mockMvc.perform(
+                    MockMvcRequestBuilders.get("/products/"+ product1.getIdProduct()).accept(ProductMediaTypes.LEAN_JSON)
+            );
+            ResultMatcher resultMatcher = MockMvcResultMatchers.status().isOk();
+
+            result.andExpect(resultMatcher)
+                    .andExpect(MockMvcResultMatchers.content().contentType(ProductMediaTypes.LEAN_JSON))
+                    .andDo(resultHandler -> {
+                        System.out.println("BODY  -> " + resultHandler.getResponse().getContentAsString());
+                        assertEquals(objectMapper.writeValueAsString(product1), resultHandler.getResponse().getContentAsString());
+                    });
+        }
+
+        @Test
+        public void get_To_products_ID_With_Matching_If_None_Match_Should_Return_ResponseEntity_NotModified() throws Exception {
+            product1.setVersion(4L);
+            when(mockedProductService.getOneProduct(product1.getIdProduct(), ProductFieldSet.ID))
+                    .thenReturn(new SpelAwareProxyProjectionFactory().createProjection(ProductIdView.class, product1));
+
+
+            ResultActions result = mockMvc.perform(
+                    MockMvcRequestBuilders.get("/products/"+ product1.getIdProduct()).header("If-None-Match", "\"4.hal\"")
+            );
+            ResultMatcher resultMatcher = MockMvcResultMatchers.status().isNotModified();
+
+            result.andExpect(resultMatcher)
+                    .andExpect(MockMvcResultMatchers.header().string("ETag", "\"4.hal\""))
+                    .andDo(resultHandler -> {
+                        assertEquals("", resultHandler.getResponse().getContentAsString());
+                    });
+            verify(mockedProductService, never()).getOneProduct(product1.getIdProduct());
+        }
+
+        @Test
+        public void get_To_products_ID_Should_Return_ETag_Of_The_Version() throws Exception {
+            product1.setVersion(4L);
+            when(mockedProductService.getOneProduct(product1.getIdProduct())).thenReturn(product1);
+
+
+            ResultActions result = mockMvc.perform(
+                    MockMvcRequestBuilders.get("/products/"+ product1.getIdProduct()).header("If-None-Match", "\"3.hal\"")
+            );
+
+            result.andExpect(MockMvcResultMatchers.status().isOk())
+                    .andExpect(MockMvcResultMatchers.header().string("ETag", "\"4.hal\""));
+        }
+
         @Test // copiar nome base desse teste para os outros q lançam erro
         public void get_To_products_ID_Should_Return_ResponseEntity_NotFound_When_ProductNotFoundException() throws Exception {
 
@@ -412,7 +554,7 @@ class ProductControllerTest {
             ProductModel productUpdated = new ProductModel(product1.getIdProduct(),productDTO1.name(),productDTO1.value());
 
 
-            when(mockedProductService.updateProduct(product1.getIdProduct(),productDTO1))
+            when(mockedProductService.updateProduct(product1.getIdProduct(),productDTO1,null))
                     .thenReturn(productUpdated);
             ResultActions result = mockMvc.perform(
                     MockMvcRequestBuilders.put("/products/"+product1.getIdProduct())
@@ -432,7 +574,7 @@ class ProductControllerTest {
 
         @Test
         public void put_To_products_ID_Should_Return_ResponseEntity_NotFound_When_ProductNotFoundException() throws Exception {
-            when(mockedProductService.updateProduct(any(), any())).thenThrow(new ProductNotFoundException("This product was not found. Try again."));
+            when(mockedProductService.updateProduct(any(), any(), any())).thenThrow(new ProductNotFoundException("This product was not found. Try again."));
 
             ResultActions result = mockMvc.perform(
                     MockMvcRequestBuilders.put("/products/"+UUID.randomUUID())
@@ -441,7 +583,7 @@ class ProductControllerTest {
             );
             ResultMatcher resultMatcher = MockMvcResultMatchers.status().isNotFound();
 
-            Throwable throwable = assertThrows(ProductNotFoundException.class, () -> mockedProductService.updateProduct(any(),any()));
+            Throwable throwable = assertThrows(ProductNotFoundException.class, () -> mockedProductService.updateProduct(any(),any(),any()));
 
             result.andExpect(resultMatcher)
                     .andDo(resultHandler -> {
@@ -450,9 +592,48 @@ class ProductControllerTest {
                     });
         }
 
+        @Test
+        public void put_To_products_ID_With_Stale_If_Match_Should_Return_ResponseEntity_PreconditionFailed() throws Exception {
+            when(mockedProductService.updateProduct(product1.getIdProduct(), productDTO1, 3L))
+                    .thenThrow(new ProductVersionConflictException("This product was changed in the meantime. Reload it and try again."));
+
+            ResultActions result = mockMvc.perform(
+                    MockMvcRequestBuilders.put("/products/"+product1.getIdProduct())
+                            .header("If-Match", "\"3.hal\"")
+                            .contentType("application/json")
+                            .content(objectMapper.writeValueAsString(productDTO1))
+            );
+            ResultMatcher resultMatcher = MockMvcResultMatchers.status().isPreconditionFailed();
+
+            result.andExpect(resultMatcher)
+                    .andDo(resultHandler -> {
+                        System.out.println("BODY  -> " + resultHandler.getResponse().getContentAsString());
+                        assertEquals("This product was changed in the meantime. Reload it and try again.", resultHandler.getResponse().getContentAsString());
+                    });
+        }
+
+        @Test
+        public void put_To_products_ID_With_Stale_Version_Should_Return_ResponseEntity_Conflict() throws Exception {
+            when(mockedProductService.updateProduct(product1.getIdProduct(), productDTO1, 3L))
+                    .thenThrow(new ProductVersionConflictException("This product was changed in the meantime. Reload it and try again."));
+
+            ResultActions result = mockMvc.perform(
+                    MockMvcRequestBuilders.put("/products/"+product1.getIdProduct()+"?version=3")
+                            .contentType("application/json")
+                            .content(objectMapper.writeValueAsString(productDTO1))
+            );
+            ResultMatcher resultMatcher = MockMvcResultMatchers.status().isConflict();
+
+            result.andExpect(resultMatcher)
+                    .andDo(resultHandler -> {
+                        System.out.println("BODY  -> " + resultHandler.getResponse().getContentAsString());
+                        assertEquals("This product was changed in the meantime. Reload it and try again.", resultHandler.getResponse().getContentAsString());
+                    });
+        }
+
         @Test
         public void put_To_products_ID_Should_Return_ResponseEntity_InternalServerError_When_Exception() throws Exception {
-            when(mockedProductService.updateProduct(any(), any())).thenThrow(new RuntimeException());
+            when(mockedProductService.updateProduct(any(), any(), any())).thenThrow(new RuntimeException());
 
             ResultActions result = mockMvc.perform(
                     MockMvcRequestBuilders.put("/products/"+UUID.randomUUID())
@@ -461,7 +642,7 @@ class ProductControllerTest {
             );
             ResultMatcher resultMatcher = MockMvcResultMatchers.status().isInternalServerError();
 
-            Throwable throwable = assertThrows(Exception.class, () -> mockedProductService.updateProduct(any(),any()));
+            Throwable throwable = assertThrows(Exception.class, () -> mockedProductService.updateProduct(any(),any(),any()));
 
             result.andExpect(resultMatcher)
                     .andDo(resultHandler -> {
@@ -484,19 +665,19 @@ class ProductControllerTest {
                         assertEquals("Product deleted successfully.", resultHandler.getResponse().getContentAsString());
                     });
 
-            verify(mockedProductService).deleteProduct(product1.getIdProduct());
+            verify(mockedProductService).deleteProduct(product1.getIdProduct(), null);
         }
 
         @Test
         public void delete_To_products_ID_Should_Return_ResponseEntity_NotFound_When_ProductNotFoundException() throws Exception {
             UUID randomID = UUID.randomUUID();
-            doThrow(new ProductNotFoundException("Product not found")).when(mockedProductService).deleteProduct(randomID);
+            doThrow(new ProductNotFoundException("Product not found")).when(mockedProductService).deleteProduct(randomID, null);
             ResultActions result = mockMvc.perform(
                     MockMvcRequestBuilders.delete("/products/"+randomID)
             );
             ResultMatcher resultMatcher = MockMvcResultMatchers.status().isNotFound();
 
-            Throwable throwable = assertThrows(ProductNotFoundException.class, () -> mockedProductService.deleteProduct(randomID));
+            Throwable throwable = assertThrows(ProductNotFoundException.class, () -> mockedProductService.deleteProduct(randomID, null));
 
             result.andExpect(resultMatcher)
                     .andDo(resultHandler -> {
@@ -505,17 +686,35 @@ class ProductControllerTest {
                     });
         }
 
+        @Test
+        public void delete_To_products_ID_With_Stale_Version_Should_Return_ResponseEntity_Conflict() throws Exception {
+            UUID randomID = UUID.randomUUID();
+            doThrow(new ProductVersionConflictException("This product was changed in the meantime. Reload it and try again."))
+                    .when(mockedProductService).deleteProduct(randomID, 2L);
+
+            ResultActions result = mockMvc.perform(
+                    MockMvcRequestBuilders.delete("/products/"+randomID+"?version=2")
+            );
+            ResultMatcher resultMatcher = MockMvcResultMatchers.status().isConflict();
+
+            result.andExpect(resultMatcher)
+                    .andDo(resultHandler -> {
+                        System.out.println("BODY  -> " + resultHandler.getResponse().getContentAsString());
+                        assertEquals("This product was changed in the meantime. Reload it and try again.", resultHandler.getResponse().getContentAsString());
+                    });
+        }
+
         @Test
         public void delete_To_products_ID_Should_Return_ResponseEntity_InternalServerError_When_Exception() throws Exception {
             UUID randomID = UUID.randomUUID();
-            doThrow(new RuntimeException()).when(mockedProductService).deleteProduct(randomID);
+            doThrow(new RuntimeException()).when(mockedProductService).deleteProduct(randomID, null);
 
             ResultActions result = mockMvc.perform(
                     MockMvcRequestBuilders.delete("/products/"+randomID)
             );
             ResultMatcher resultMatcher = MockMvcResultMatchers.status().isInternalServerError();
 
-            Throwable throwable = assertThrows(Exception.class, () -> mockedProductService.deleteProduct(randomID));
+            Throwable throwable = assertThrows(Exception.class, () -> mockedProductService.deleteProduct(randomID, null));
 
             result.andExpect(resultMatcher)
                     .andDo(resultHandler -> {
@@ -523,6 +722,85 @@ class ProductControllerTest {
                         assertEquals("Internal Server Error", resultHandler.getResponse().getContentAsString());
                     });
         }
+
+        @Test
+        public void post_To_products_batchGet_Should_Return_ResponseEntity_OK_With_Products_In_Requested_Order() throws Exception {
+            UUID randomID = UUID.randomUUID();
+            List<UUID> ids = List.of(product2.getIdProduct(), randomID, product1.getIdProduct());
+            when(mockedProductService.getProducts(ids))
+                    .thenReturn(new ProductBatchGetResult(List.of(product2, product1), List.of(randomID)));
+
+            ResultActions result = mockMvc.perform(
+                    MockMvcRequestBuilders.post("/products:batchGet")
+                            .contentType("application/json")
+                            .content(objectMapper.writeValueAsString(ids))
+            );
+            ResultMatcher resultMatcher = MockMvcResultMatchers.status().isOk();
+
+            result.andExpect(resultMatcher)
+                    .andExpect(MockMvcResultMatchers.jsonPath("$.products[0].name").value("prod2"))
+                    .andExpect(MockMvcResultMatchers.jsonPath("$.products[1].name").value("prod1"))
+                    .andExpect(MockMvcResultMatchers.jsonPath("$.notFound[0]").value(randomID.toString()));
+            verify(mockedProductService, never()).getOneProduct(any());
+        }
+
+        @Test
+        public void patch_To_products_With_Stale_Version_Should_Return_ResponseEntity_MultiStatus() throws Exception {
+            List<ProductPatchDto> patches = List.of(
+                    new ProductPatchDto(product1.getIdProduct(), "prod1 updated", null, 1L),
+                    new ProductPatchDto(product2.getIdProduct(), null, new BigDecimal("25.0"), 4L));
+            ProductModel updated = new ProductModel(product1.getIdProduct(), "prod1 updated", product1.getValue());
+            updated.setVersion(2L);
+            when(mockedProductService.patchProducts(patches))
+                    .thenReturn(new ProductBulkMutationReport<>(2, List.of(updated), List.of(), List.of(product2.getIdProduct())));
+
+            ResultActions result = mockMvc.perform(
+                    MockMvcRequestBuilders.patch("/products")
+                            .contentType("application/json")
+                            .content(objectMapper.writeValueAsString(patches))
+            );
+            ResultMatcher resultMatcher = MockMvcResultMatchers.status().isMultiStatus();
+
+            result.andExpect(resultMatcher)
+                    .andExpect(MockMvcResultMatchers.jsonPath("$.applied[0].version").value(2))
+                    .andExpect(MockMvcResultMatchers.jsonPath("$.conflicts[0]").value(product2.getIdProduct().toString()));
+        }
+
+        @Test
+        public void patch_To_products_Should_Return_ResponseEntity_BadRequest_When_InvalidQueryException() throws Exception {
+            when(mockedProductService.patchProducts(any())).thenThrow(new InvalidQueryException("No products were given"));
+
+            ResultActions result = mockMvc.perform(
+                    MockMvcRequestBuilders.patch("/products")
+                            .contentType("application/json")
+                            .content("[]")
+            );
+            ResultMatcher resultMatcher = MockMvcResultMatchers.status().isBadRequest();
+
+            result.andExpect(resultMatcher)
+                    .andDo(resultHandler -> {
+                        System.out.println("BODY  -> " + resultHandler.getResponse().getContentAsString());
+                        assertEquals("No products were given", resultHandler.getResponse().getContentAsString());
+                    });
+        }
+
+        @Test
+        public void post_To_products_batchDelete_Should_Return_ResponseEntity_OK() throws Exception {
+            List<ProductRefDto> products = List.of(new ProductRefDto(product1.getIdProduct(), null), new ProductRefDto(product2.getIdProduct(), 3L));
+            when(mockedProductService.deleteProducts(products)).thenReturn(new ProductBulkMutationReport<>(2,
+                    List.of(product1.getIdProduct(), product2.getIdProduct()), List.of(), List.of()));
+
+            ResultActions result = mockMvc.perform(
+                    MockMvcRequestBuilders.post("/products:batchDelete")
+                            .contentType("application/json")
+                            .content(objectMapper.writeValueAsString(products))
+            );
+            ResultMatcher resultMatcher = MockMvcResultMatchers.status().isOk();
+
+            result.andExpect(resultMatcher)
+                    .andExpect(MockMvcResultMatchers.jsonPath("$.applied.length()").value(2));
+            verify(mockedProductService, never()).deleteProduct(any(), any());
+        }
     }
 
 
@@ -0,0 +1,140 @@
+package com.dev.ProductsAPI.jobs;
+
+import com.dev.ProductsAPI.config.ThreadFactories;
+import com.dev.ProductsAPI.dtos.ImportJobStatus;
+import com.dev.ProductsAPI.dtos.ProductSyncReport;
+import com.dev.ProductsAPI.exceptions.ApiOutOfServiceException;
+import com.dev.ProductsAPI.exceptions.JobNotFoundException;
+import com.dev.ProductsAPI.services.ImportProgress;
+import com.dev.ProductsAPI.services.ProductService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ImportJobServiceTest {
+
+    @Mock
+    ProductService productService;
+
+    ImportJobService importJobService;
+
+    @BeforeEach
+    private void setUp() {
+        importJobService = new ImportJobService(productService, 1, 1, 10, ThreadFactories.named("import-job-", true), Clock.systemUTC());
+    }
+
+    @AfterEach
+    private void tearDown() {
+        importJobService.shutdown();
+    }
+
+    @Test
+    public void should_Run_Import_In_Background_And_Report_Progress() throws Exception {
+        CountDownLatch saving = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(productService.saveProductsIntoDB(any(ImportProgress.class))).then(invocation -> {
+            ImportProgress progress = invocation.getArgument(0);
+            progress.fetching();
+            progress.saving(3);
+            progress.saved(2);
+            saving.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            progress.saved(1);
+            return new ProductSyncReport(true, 3, 1, 1, 1);
+        });
+
+        ImportJobStatus submitted = importJobService.submit();
+        assertTrue(saving.await(5, TimeUnit.SECONDS));
+
+        ImportJobStatus running = importJobService.getStatus(submitted.id());
+        assertEquals("SAVING", running.phase());
+        assertEquals(3, running.itemsTotal());
+        assertEquals(2, running.itemsProcessed());
+
+        release.countDown();
+        ImportJobStatus finished = awaitFinished(submitted.id());
+        assertEquals("COMPLETED", finished.phase());
+        assertEquals(3, finished.itemsProcessed());
+        assertEquals(new ProductSyncReport(true, 3, 1, 1, 1), finished.report());
+        assertNotNull(finished.finishedAt());
+    }
+
+    @Test
+    public void should_Return_Running_Job_Instead_Of_Starting_A_Duplicate_Import() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(productService.saveProductsIntoDB(any(ImportProgress.class))).then(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return ProductSyncReport.notModified();
+        });
+
+        ImportJobStatus first = importJobService.submit();
+        ImportJobStatus second = importJobService.submit();
+
+        assertEquals(first.id(), second.id());
+        release.countDown();
+        awaitFinished(first.id());
+        verify(productService, times(1)).saveProductsIntoDB(any(ImportProgress.class));
+
+        ImportJobStatus next = importJobService.submit();
+        assertNotEquals(first.id(), next.id());
+    }
+
+    @Test
+    public void should_Mark_Job_Failed_When_Import_Throws() throws Exception {
+        when(productService.saveProductsIntoDB(any(ImportProgress.class)))
+                .thenThrow(new ApiOutOfServiceException("The API fake store is out of service"));
+
+        ImportJobStatus submitted = importJobService.submit();
+
+        ImportJobStatus finished = awaitFinished(submitted.id());
+        assertEquals("FAILED", finished.phase());
+        assertEquals("The API fake store is out of service", finished.error());
+        assertNull(finished.report());
+    }
+
+    @Test
+    public void should_Mark_Job_Failed_And_Accept_A_New_Import_When_Import_Throws_An_Error() throws Exception {
+        when(productService.saveProductsIntoDB(any(ImportProgress.class)))
+                .thenThrow(new OutOfMemoryError("Java heap space"))
+                .thenReturn(ProductSyncReport.notModified());
+
+        ImportJobStatus submitted = importJobService.submit();
+
+        ImportJobStatus finished = awaitFinished(submitted.id());
+        assertEquals("FAILED", finished.phase());
+        assertEquals("java.lang.OutOfMemoryError: Java heap space", finished.error());
+
+        ImportJobStatus next = importJobService.submit();
+        assertNotEquals(submitted.id(), next.id());
+        assertEquals("COMPLETED", awaitFinished(next.id()).phase());
+    }
+
+    @Test
+    public void should_Throw_JobNotFoundException_For_Unknown_Job() {
+        Throwable throwable = assertThrows(JobNotFoundException.class, () -> importJobService.getStatus(UUID.randomUUID()));
+
+        assertEquals("Job not found", throwable.getMessage());
+    }
+
+    private ImportJobStatus awaitFinished(UUID id) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        ImportJobStatus status = importJobService.getStatus(id);
+        while (!status.phase().equals("COMPLETED") && !status.phase().equals("FAILED") && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            status = importJobService.getStatus(id);
+        }
+        return status;
+    }
+}
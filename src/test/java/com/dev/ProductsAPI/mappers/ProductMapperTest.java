@@ -0,0 +1,62 @@
+package com.dev.ProductsAPI.mappers;
+
+import com.dev.ProductsAPI.dtos.ProductApiDTO;
+import com.dev.ProductsAPI.dtos.ProductRecordDto;
+import com.dev.ProductsAPI.models.ProductModel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ProductMapperTest {
+
+    ProductMapper productMapper;
+
+    @BeforeEach
+    private void setUp() {
+        productMapper = new ProductMapperImpl();
+    }
+
+    @Test
+    public void should_Map_ProductRecordDto_To_New_ProductModel() {
+        ProductModel productModel = productMapper.toProductModel(new ProductRecordDto("prod1", new BigDecimal("10.0")));
+
+        assertNull(productModel.getIdProduct());
+        assertNull(productModel.getExternalId());
+        assertEquals("prod1", productModel.getName());
+        assertEquals(new BigDecimal("10.0"), productModel.getValue());
+    }
+
+    @Test
+    public void should_Map_ProductApiDTO_With_External_Id() {
+        ProductApiDTO productApiDTO = new ProductApiDTO();
+        productApiDTO.setExternalId(7L);
+        productApiDTO.setName("prod7");
+        productApiDTO.setValue(new BigDecimal("70.5"));
+
+        ProductModel productModel = productMapper.toProductModel(productApiDTO);
+
+        assertNull(productModel.getIdProduct());
+        assertEquals(7L, productModel.getExternalId());
+        assertEquals("prod7", productModel.getName());
+        assertEquals(new BigDecimal("70.5"), productModel.getValue());
+    }
+
+    @Test
+    public void should_Update_ProductModel_Keeping_Its_Ids() {
+        UUID id = UUID.randomUUID();
+        ProductModel productModel = new ProductModel(id, "prod1", new BigDecimal("10.0"));
+        productModel.setExternalId(1L);
+
+        productMapper.updateProductModel(new ProductRecordDto("prod1 updated", new BigDecimal("12.5")), productModel);
+
+        assertEquals(id, productModel.getIdProduct());
+        assertEquals(1L, productModel.getExternalId());
+        assertEquals("prod1 updated", productModel.getName());
+        assertEquals(new BigDecimal("12.5"), productModel.getValue());
+    }
+}
@@ -0,0 +1,32 @@
+package com.dev.ProductsAPI.projections;
+
+import com.dev.ProductsAPI.exceptions.InvalidQueryException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ProductFieldSetTest {
+
+    @Test
+    public void should_Parse_Fields_To_The_Narrowest_Projection() {
+        assertEquals(ProductFieldSet.ID, ProductFieldSet.parse("idProduct"));
+        assertEquals(ProductFieldSet.NAME, ProductFieldSet.parse("name"));
+        assertEquals(ProductFieldSet.VALUE, ProductFieldSet.parse("idProduct,value"));
+        assertEquals(ProductFieldSet.ALL, ProductFieldSet.parse("value, Name"));
+        assertEquals(ProductView.class, ProductFieldSet.parse("name,value").getViewType());
+    }
+
+    @Test
+    public void should_Always_Include_The_Id_And_Version() {
+        assertEquals(ProductFieldSet.ID, ProductFieldSet.parse(""));
+        assertEquals(ProductFieldSet.NAME, ProductFieldSet.parse("name,version"));
+        assertEquals(ProductIdView.class, ProductFieldSet.parse(",").getViewType());
+    }
+
+    @Test
+    public void should_Throw_InvalidQueryException_For_An_Unknown_Field() {
+        Throwable throwable = assertThrows(InvalidQueryException.class, () -> ProductFieldSet.parse("name,links"));
+        assertEquals("Unknown product field: links", throwable.getMessage());
+    }
+}
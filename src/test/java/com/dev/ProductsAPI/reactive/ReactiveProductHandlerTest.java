@@ -0,0 +1,118 @@
+package com.dev.ProductsAPI.reactive;
+
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.r2dbc.repository.support.R2dbcRepositoryFactory;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Runs the reactive routes against the R2DBC repository on an in-memory H2 database.
+ */
+class ReactiveProductHandlerTest {
+
+    static final UUID ID_1 = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    static final UUID ID_2 = UUID.fromString("00000000-0000-0000-0000-000000000002");
+    static final UUID ID_3 = UUID.fromString("00000000-0000-0000-0000-000000000003");
+
+    DatabaseClient databaseClient;
+    WebTestClient webTestClient;
+
+    @BeforeEach
+    private void setUp() {
+        ConnectionFactory connectionFactory = ConnectionFactories.get("r2dbc:h2:mem:///reactiveProducts;DB_CLOSE_DELAY=-1");
+        databaseClient = DatabaseClient.create(connectionFactory);
+        databaseClient.sql("CREATE TABLE \"tb products\" (\"id_product\" UUID PRIMARY KEY, \"name\" VARCHAR(255), \"value\" NUMERIC(38, 2))")
+                .then().block();
+        Flux.just(new ReactiveProduct(ID_3, "prod3", new BigDecimal("30.00")),
+                        new ReactiveProduct(ID_1, "prod1", new BigDecimal("10.00")),
+                        new ReactiveProduct(ID_2, "prod2", new BigDecimal("20.00")))
+                .concatMap(product -> databaseClient.sql("INSERT INTO \"tb products\" VALUES (:id, :name, :value)")
+                        .bind("id", product.idProduct())
+                        .bind("name", product.name())
+                        .bind("value", product.value())
+                        .then())
+                .blockLast();
+
+        ReactiveProductHandler handler = new ReactiveProductHandler();
+        handler.reactiveProductRepository = new R2dbcRepositoryFactory(new R2dbcEntityTemplate(connectionFactory))
+                .getRepository(ReactiveProductRepository.class);
+        webTestClient = WebTestClient.bindToRouterFunction(new ReactiveProductRouter().reactiveProductRoutes(handler)).build();
+    }
+
+    @AfterEach
+    private void tearDown() {
+        databaseClient.sql("DROP TABLE \"tb products\"").then().block();
+    }
+
+    @Test
+    public void should_Stream_Products_In_Id_Order_As_Ndjson() {
+        Flux<ReactiveProduct> products = webTestClient.get().uri("/products")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(ReactiveProduct.class)
+                .getResponseBody();
+
+        StepVerifier.create(products.map(ReactiveProduct::idProduct))
+                .expectNext(ID_1, ID_2, ID_3)
+                .verifyComplete();
+    }
+
+    @Test
+    public void should_Resume_Stream_After_Id_And_Stop_At_Limit() {
+        Flux<ReactiveProduct> products = webTestClient.get().uri("/products?after={after}&limit=1", ID_1)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(ReactiveProduct.class)
+                .getResponseBody();
+
+        StepVerifier.create(products)
+                .expectNext(new ReactiveProduct(ID_2, "prod2", new BigDecimal("20.00")))
+                .verifyComplete();
+    }
+
+    @Test
+    public void should_Stream_Server_Sent_Events_When_Asked_For() {
+        webTestClient.get().uri("/products?limit=1")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM);
+    }
+
+    @Test
+    public void should_Get_One_Product() {
+        webTestClient.get().uri("/products/{id}", ID_3)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(ReactiveProduct.class).isEqualTo(new ReactiveProduct(ID_3, "prod3", new BigDecimal("30.00")));
+    }
+
+    @Test
+    public void should_Return_NotFound_For_Unknown_Product() {
+        webTestClient.get().uri("/products/{id}", UUID.randomUUID())
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody(String.class).isEqualTo("This product was not found. Try again.");
+    }
+
+    @Test
+    public void should_Return_BadRequest_For_Invalid_Limit() {
+        webTestClient.get().uri("/products?limit=0")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+}
@@ -0,0 +1,117 @@
+package com.dev.ProductsAPI.repository.offheap;
+
+import com.dev.ProductsAPI.models.ProductModel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapProductStoreTest {
+
+    OffHeapProductStore store;
+
+    @BeforeEach
+    private void setUp() {
+        store = new OffHeapProductStore(16);
+    }
+
+    @Test
+    public void should_Return_Stored_Product_With_Same_Id_Name_And_Price() {
+        UUID id = UUID.fromString("cea90302-285e-4b26-bd75-ee3254246021");
+        store.upsertAll(List.of(new ProductModel(id, "prod1", new BigDecimal("10.50"))));
+
+        ProductModel product = store.findById(id).orElseThrow();
+
+        assertEquals(id, product.getIdProduct());
+        assertEquals("prod1", product.getName());
+        assertEquals(new BigDecimal("10.50"), product.getValue());
+        assertTrue(store.findById(UUID.randomUUID()).isEmpty());
+    }
+
+    @Test
+    public void should_Replace_Existing_Product_On_Upsert() {
+        UUID id = UUID.randomUUID();
+        store.upsertAll(List.of(new ProductModel(id, "prod1", new BigDecimal("10.0"))));
+        store.upsertAll(List.of(new ProductModel(id, null, null)));
+
+        ProductModel product = store.findById(id).orElseThrow();
+
+        assertEquals(1, store.size());
+        assertNull(product.getName());
+        assertNull(product.getValue());
+    }
+
+    @Test
+    public void should_Keep_Row_Version_Of_A_Row_Moved_By_A_Delete() {
+        ProductModel first = new ProductModel(UUID.randomUUID(), "prod1", new BigDecimal("10.0"));
+        ProductModel last = new ProductModel(UUID.randomUUID(), "prod2", new BigDecimal("20.0"));
+        last.setVersion(7L);
+        ProductModel unversioned = new ProductModel(UUID.randomUUID(), "prod3", new BigDecimal("30.0"));
+        store.upsertAll(List.of(first, unversioned, last));
+
+        store.deleteAll(List.of(first.getIdProduct()));
+
+        assertEquals(7L, store.findById(last.getIdProduct()).orElseThrow().getVersion());
+        assertNull(store.findById(unversioned.getIdProduct()).orElseThrow().getVersion());
+    }
+
+    @Test
+    public void should_Keep_Every_Product_Reachable_While_Growing_And_Deleting() {
+        List<ProductModel> products = IntStream.range(0, 5000)
+                .mapToObj(i -> new ProductModel(UUID.randomUUID(), "prod" + (i % 100), BigDecimal.valueOf(i, 2)))
+                .toList();
+        store.upsertAll(products);
+
+        List<UUID> deleted = products.stream().filter(p -> p.getValue().unscaledValue().intValue() % 3 == 0)
+                .map(ProductModel::getIdProduct)
+                .toList();
+        store.deleteAll(deleted);
+
+        assertEquals(products.size() - deleted.size(), store.size());
+        for (ProductModel product : products) {
+            boolean wasDeleted = product.getValue().unscaledValue().intValue() % 3 == 0;
+            assertEquals(!wasDeleted, store.findById(product.getIdProduct()).isPresent());
+            if (!wasDeleted) {
+                assertEquals(product.getName(), store.findById(product.getIdProduct()).get().getName());
+            }
+        }
+    }
+
+    @Test
+    public void should_Slice_In_Requested_Order_With_Missing_Values_Last() {
+        store.upsertAll(List.of(
+                new ProductModel(UUID.randomUUID(), "b", new BigDecimal("2")),
+                new ProductModel(UUID.randomUUID(), "a", new BigDecimal("10.5")),
+                new ProductModel(UUID.randomUUID(), "c", null),
+                new ProductModel(UUID.randomUUID(), "d", new BigDecimal("2.25"))));
+
+        List<String> byValue = store.slice(0, 10, Sort.by("value")).stream().map(ProductModel::getName).toList();
+        List<String> byNameDesc = store.slice(1, 2, Sort.by(Sort.Direction.DESC, "name")).stream().map(ProductModel::getName).toList();
+
+        assertEquals(List.of("b", "d", "a", "c"), byValue);
+        assertEquals(List.of("c", "b"), byNameDesc);
+    }
+
+    @Test
+    public void should_Reject_Batch_With_Price_That_Does_Not_Fit_Without_Storing_Any_Of_It() {
+        List<ProductModel> products = List.of(
+                new ProductModel(UUID.randomUUID(), "prod1", new BigDecimal("10.0")),
+                new ProductModel(UUID.randomUUID(), "prod2", new BigDecimal("123456789012345678901234567890")));
+
+        assertThrows(IllegalArgumentException.class, () -> store.upsertAll(products));
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    public void should_Reject_Sort_On_Unknown_Property() {
+        store.upsertAll(List.of(new ProductModel(UUID.randomUUID(), "prod1", BigDecimal.ONE)));
+
+        assertThrows(IllegalArgumentException.class, () -> store.slice(0, 10, Sort.by("links")));
+    }
+}
@@ -0,0 +1,57 @@
+package com.dev.ProductsAPI.representation;
+
+import com.dev.ProductsAPI.models.ProductModel;
+import com.dev.ProductsAPI.projections.ProductFieldSet;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductETagsTest {
+
+    @Test
+    public void should_Tag_Each_Representation_Of_A_Version() {
+        assertEquals("\"4.hal\"", ProductETags.ofProduct(4L, ProductETags.variant(null, null)));
+        assertEquals("\"4.lean-name\"", ProductETags.ofProduct(4L, ProductETags.variant(ProductMediaTypes.LEAN_JSON_VALUE, ProductFieldSet.NAME)));
+        assertNull(ProductETags.ofProduct(null, "hal"));
+    }
+
+    @Test
+    public void should_Match_If_None_Match_Lists_Weakly() {
+        assertTrue(ProductETags.matches("\"3.hal\", \"4.hal\"", "\"4.hal\""));
+        assertTrue(ProductETags.matches("W/\"4.hal\"", "\"4.hal\""));
+        assertTrue(ProductETags.matches("*", "\"4.hal\""));
+        assertFalse(ProductETags.matches("\"4.lean\"", "\"4.hal\""));
+    }
+
+    @Test
+    public void should_Read_The_Version_Of_A_Strong_If_Match() {
+        assertEquals(OptionalLong.of(4L), ProductETags.versionOf("\"4.hal\""));
+        assertEquals(OptionalLong.of(4L), ProductETags.versionOf(" \"4\" "));
+        assertTrue(ProductETags.versionOf("W/\"4.hal\"").isEmpty());
+        assertTrue(ProductETags.versionOf("\"4.hal\", \"5.hal\"").isEmpty());
+        assertTrue(ProductETags.versionOf("\"a1b2.hal\"").isEmpty());
+    }
+
+    @Test
+    public void should_Change_The_Page_Tag_Only_When_A_Product_On_It_Changes() {
+        ProductModel product1 = new ProductModel(UUID.randomUUID(), "prod1", new BigDecimal("10.0"));
+        ProductModel product2 = new ProductModel(UUID.randomUUID(), "prod2", new BigDecimal("20.0"));
+        product1.setVersion(0L);
+        product2.setVersion(0L);
+
+        String etag = ProductETags.ofProductPage(new PageImpl<>(List.of(product1, product2), PageRequest.of(0, 2), 5), "hal");
+        assertEquals(etag, ProductETags.ofProductPage(new PageImpl<>(List.of(product1, product2), PageRequest.of(0, 2), 5), "hal"));
+
+        assertNotEquals(etag, ProductETags.ofProductPage(new PageImpl<>(List.of(product2, product1), PageRequest.of(0, 2), 5), "hal"));
+        assertNotEquals(etag, ProductETags.ofProductPage(new PageImpl<>(List.of(product1, product2), PageRequest.of(0, 2), 6), "hal"));
+        product2.setVersion(1L);
+        assertNotEquals(etag, ProductETags.ofProductPage(new PageImpl<>(List.of(product1, product2), PageRequest.of(0, 2), 5), "hal"));
+    }
+}
@@ -0,0 +1,93 @@
+package com.dev.ProductsAPI.representation;
+
+import com.dev.ProductsAPI.controllers.ProductController;
+import com.dev.ProductsAPI.dtos.ProductKeysetPage;
+import com.dev.ProductsAPI.models.ProductModel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.web.HateoasPageableHandlerMethodArgumentResolver;
+import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+class ProductRepresentationAssemblerTest {
+
+    ProductRepresentationAssembler productRepresentationAssembler;
+
+    ProductModel product1;
+    ProductModel product2;
+
+    @BeforeEach
+    private void setUp() {
+        productRepresentationAssembler = new ProductRepresentationAssembler();
+        productRepresentationAssembler.assembler = new PagedResourcesAssembler<>(new HateoasPageableHandlerMethodArgumentResolver(), null);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products");
+        request.setServerName("products.example");
+        request.setServerPort(8443);
+        request.setScheme("https");
+        request.setContextPath("/api");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        product1 = new ProductModel(UUID.randomUUID(), "prod1", new BigDecimal("10.0"));
+        product2 = new ProductModel(UUID.randomUUID(), "prod2", new BigDecimal("20.0"));
+    }
+
+    @AfterEach
+    private void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    public void should_Render_The_Same_Self_Links_As_LinkTo() {
+        PagedModel<EntityModel<ProductModel>> pagedModel = productRepresentationAssembler.toPagedModel(
+                new PageImpl<>(List.of(product1, product2), PageRequest.of(0, 2), 4));
+
+        List<EntityModel<ProductModel>> content = List.copyOf(pagedModel.getContent());
+        assertEquals(2, content.size());
+        assertEquals(linkTo(methodOn(ProductController.class).getOneProduct(product1.getIdProduct(), null, null, null)).withSelfRel().expand().getHref(),
+                content.get(0).getRequiredLink(IanaLinkRelations.SELF).getHref());
+        assertEquals(linkTo(methodOn(ProductController.class).getOneProduct(product2.getIdProduct(), null, null, null)).withSelfRel().expand().getHref(),
+                content.get(1).getRequiredLink(IanaLinkRelations.SELF).getHref());
+        assertTrue(pagedModel.getLink(IanaLinkRelations.NEXT).isPresent());
+    }
+
+    @Test
+    public void should_Add_Next_Link_Only_When_Keyset_Page_Has_A_Cursor() {
+        CollectionModel<EntityModel<ProductModel>> withNext =
+                productRepresentationAssembler.toKeysetModel(new ProductKeysetPage(List.of(product1), 1, "cursor2"), "");
+        CollectionModel<EntityModel<ProductModel>> lastPage =
+                productRepresentationAssembler.toKeysetModel(new ProductKeysetPage(List.of(product2), 1, null), "cursor2");
+
+        assertTrue(withNext.getRequiredLink(IanaLinkRelations.NEXT).getHref().contains("after=cursor2"));
+        assertTrue(lastPage.getRequiredLink(IanaLinkRelations.SELF).getHref().contains("after=cursor2"));
+        assertFalse(lastPage.getLink(IanaLinkRelations.NEXT).isPresent());
+    }
+
+    @Test
+    public void should_Wrap_Single_Product_Without_Touching_The_Entity() {
+        EntityModel<ProductModel> entityModel = productRepresentationAssembler.toModel(product1);
+
+        assertEquals(product1, entityModel.getContent());
+        assertTrue(entityModel.getLink(IanaLinkRelations.SELF).isPresent());
+        assertTrue(entityModel.getLink("Products List:").isPresent());
+    }
+}
@@ -0,0 +1,68 @@
+package com.dev.ProductsAPI.search;
+
+import com.dev.ProductsAPI.models.ProductModel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProductNameIndexTest {
+
+    ProductNameIndex productNameIndex;
+
+    ProductModel oakChair;
+    ProductModel armchair;
+    ProductModel chair;
+    ProductModel cafeTable;
+
+    @BeforeEach
+    private void setUp() {
+        productNameIndex = new ProductNameIndex();
+        oakChair = new ProductModel(UUID.randomUUID(), "Oak Chair", new BigDecimal("10.0"));
+        armchair = new ProductModel(UUID.randomUUID(), "Armchair deluxe", new BigDecimal("20.0"));
+        chair = new ProductModel(UUID.randomUUID(), "Chair", new BigDecimal("30.0"));
+        cafeTable = new ProductModel(UUID.randomUUID(), "Café table", new BigDecimal("40.0"));
+        productNameIndex.upsertAll(List.of(oakChair, armchair, chair, cafeTable));
+    }
+
+    @Test
+    public void should_Rank_Exact_Name_Then_Word_Start_Then_Infix_Matches() {
+        Page<ProductModel> page = productNameIndex.search("chair", PageRequest.of(0, 10));
+
+        assertEquals(List.of("Chair", "Oak Chair", "Armchair deluxe"), page.map(ProductModel::getName).getContent());
+        assertEquals(3, page.getTotalElements());
+    }
+
+    @Test
+    public void should_Match_Short_Words_Only_At_Word_Start_And_Ignore_Case_And_Accents() {
+        assertEquals(List.of("Chair", "Oak Chair"), productNameIndex.search("CH", PageRequest.of(0, 10)).map(ProductModel::getName).getContent());
+        assertEquals(List.of("Café table"), productNameIndex.search("cafe", PageRequest.of(0, 10)).map(ProductModel::getName).getContent());
+        assertEquals(List.of("Oak Chair"), productNameIndex.search("oak ch", PageRequest.of(0, 10)).map(ProductModel::getName).getContent());
+    }
+
+    @Test
+    public void should_Page_Through_Ranked_Results() {
+        Page<ProductModel> page = productNameIndex.search("chair", PageRequest.of(1, 2));
+
+        assertEquals(List.of(armchair.getIdProduct()), page.map(ProductModel::getIdProduct).getContent());
+        assertEquals(3, page.getTotalElements());
+    }
+
+    @Test
+    public void should_Follow_Renames_And_Deletes() {
+        productNameIndex.upsertAll(List.of(new ProductModel(oakChair.getIdProduct(), "Pine bench", new BigDecimal("10.0"))));
+        productNameIndex.removeAll(List.of(chair.getIdProduct()));
+
+        assertEquals(List.of("Armchair deluxe"), productNameIndex.search("chair", PageRequest.of(0, 10)).map(ProductModel::getName).getContent());
+        assertEquals(1, productNameIndex.search("bench", PageRequest.of(0, 10)).getTotalElements());
+        assertTrue(productNameIndex.search("xyz", PageRequest.of(0, 10)).isEmpty());
+        assertEquals(3, productNameIndex.size());
+    }
+}
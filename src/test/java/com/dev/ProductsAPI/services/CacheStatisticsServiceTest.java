@@ -0,0 +1,78 @@
+package com.dev.ProductsAPI.services;
+
+import com.dev.ProductsAPI.benchmarks.BenchmarkPersistence;
+import com.dev.ProductsAPI.dtos.CacheStatisticsDto;
+import com.dev.ProductsAPI.models.ProductModel;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs against a real Hibernate second-level cache, set up like the primary persistence unit
+ * in {@code DatabaseConfig}.
+ */
+class CacheStatisticsServiceTest {
+
+    BenchmarkPersistence persistence;
+
+    CacheStatisticsService cacheStatisticsService;
+
+    ProductModel product;
+
+    @BeforeEach
+    private void setUp() {
+        persistence = new BenchmarkPersistence("cacheStatisticsTest", Map.of(
+                "hibernate.cache.use_second_level_cache", "true",
+                "hibernate.cache.region.factory_class", "jcache",
+                "hibernate.javax.cache.provider", "org.ehcache.jsr107.EhcacheCachingProvider",
+                "hibernate.javax.cache.uri", "ehcache.xml",
+                "hibernate.javax.cache.missing_cache_strategy", "fail",
+                "jakarta.persistence.sharedCache.mode", "ENABLE_SELECTIVE",
+                "hibernate.generate_statistics", "true"));
+        cacheStatisticsService = new CacheStatisticsService();
+        cacheStatisticsService.entityManagerFactory = persistence.entityManagerFactory;
+
+        product = new TransactionTemplate(persistence.transactionManager).execute(status ->
+                persistence.productRepository.save(new ProductModel(null, "prod1", new BigDecimal("10.0"))));
+        persistence.entityManagerFactory.getCache().evictAll();
+        persistence.entityManagerFactory.unwrap(SessionFactory.class).getStatistics().clear();
+    }
+
+    @AfterEach
+    private void tearDown() {
+        persistence.close();
+    }
+
+    @Test
+    public void should_Serve_A_Repeated_FindById_From_The_Products_Region() {
+        persistence.productRepository.findById(product.getIdProduct());
+        persistence.productRepository.findById(product.getIdProduct());
+
+        CacheStatisticsDto statistics = cacheStatisticsService.getProductCacheStatistics();
+
+        assertEquals(ProductModel.CACHE_REGION, statistics.region());
+        assertEquals(1, statistics.missCount());
+        assertEquals(1, statistics.putCount());
+        assertEquals(1, statistics.hitCount());
+        assertEquals(0.5, statistics.hitRatio());
+        assertTrue(persistence.entityManagerFactory.getCache().contains(ProductModel.class, product.getIdProduct()));
+    }
+
+    @Test
+    public void should_Report_A_Zero_Hit_Ratio_Before_Any_Lookup() {
+        CacheStatisticsDto statistics = cacheStatisticsService.getProductCacheStatistics();
+
+        assertEquals(ProductModel.CACHE_REGION, statistics.region());
+        assertEquals(0, statistics.hitCount());
+        assertEquals(0, statistics.missCount());
+        assertEquals(0.0, statistics.hitRatio());
+    }
+}
@@ -1,26 +1,37 @@
 package com.dev.ProductsAPI.services;
 
-import com.dev.ProductsAPI.dtos.ProductApiDTO;
+import com.dev.ProductsAPI.client.CircuitBreaker;
+import com.dev.ProductsAPI.client.FakeStoreClient;
+import com.dev.ProductsAPI.client.FakeStoreResponse;
+import com.dev.ProductsAPI.client.FakeStoreSnapshot;
 import com.dev.ProductsAPI.exceptions.ApiOutOfServiceException;
 import com.dev.ProductsAPI.exceptions.ProductNotFoundException;
+import com.dev.ProductsAPI.mappers.ProductMapper;
+import com.dev.ProductsAPI.mappers.ProductMapperImpl;
 import com.dev.ProductsAPI.models.ProductModel;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.web.client.HttpStatusCodeException;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
 
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Optional;
 
 import static org.mockito.Mockito.*;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 
 
@@ -28,57 +39,113 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 class FakeProductsServiceTest {
 
     @Mock
-    RestTemplate restTemplate;
+    FakeStoreClient fakeStoreClient;
+
+    @Mock
+    FakeStoreSnapshot fakeStoreSnapshot;
+
+    @Spy
+    ObjectMapper objectMapper = new ObjectMapper();
+
+    @Spy
+    ProductMapper productMapper = new ProductMapperImpl();
 
     @InjectMocks
     FakeProductsService fakeProductsService;
 
-    ProductApiDTO product1;
-    ProductApiDTO product2;
-    ProductApiDTO product3;
+    byte[] catalogBody;
 
     @BeforeEach
     private void setUp() {
-        product1 = new ProductApiDTO();
-        product1.setName("prod1");
-        product1.setValue(new BigDecimal("123.1"));
-        product2 = new ProductApiDTO();
-        product2.setName("prod2");
-        product2.setValue(new BigDecimal("234.5"));
-        product3 = new ProductApiDTO();
-        product3.setName("prod3");
-        product3.setValue(new BigDecimal("678.9"));
+        catalogBody = ("[{\"id\":1,\"title\":\"prod1\",\"price\":123.1,\"category\":\"a\"},"
+                + "{\"id\":2,\"title\":\"prod2\",\"price\":234.5,\"category\":\"a\"},"
+                + "{\"id\":3,\"title\":\"prod3\",\"price\":678.9,\"category\":\"b\"}]").getBytes(StandardCharsets.UTF_8);
+        lenient().when(fakeStoreSnapshot.load()).thenReturn(Optional.empty());
     }
 
     @Test
     public void should_Get_Product_List_From_FakeStoreAPI() {
+        FakeStoreResponse response = FakeStoreResponse.of(catalogBody, "\"v1\"", null);
+        when(fakeStoreClient.fetchProducts(null)).thenReturn(Mono.just(response));
+
+        FakeProductsService.UpstreamCatalog catalog = fakeProductsService.getChangedProducts().orElseThrow();
+
+        List<ProductModel> productModelList = catalog.products();
+        assertEquals("prod1", productModelList.get(0).getName());
+        assertEquals("prod2", productModelList.get(1).getName());
+        assertEquals("prod3", productModelList.get(2).getName());
+        assertEquals(new BigDecimal("678.9"), productModelList.get(2).getValue());
+        assertEquals(3L, productModelList.get(2).getExternalId());
+        assertEquals(3, productModelList.size());
+        assertEquals(response, catalog.response());
+        verify(fakeStoreSnapshot, never()).save(any());
+    }
+
+    @Test
+    public void should_Send_Snapshot_Validators_And_Skip_Parsing_When_Not_Modified() {
+        FakeStoreResponse snapshot = FakeStoreResponse.of(catalogBody, "\"v1\"", "Wed, 21 Oct 2015 07:28:00 GMT");
+        when(fakeStoreSnapshot.load()).thenReturn(Optional.of(snapshot));
+        when(fakeStoreClient.fetchProducts(snapshot)).thenReturn(Mono.just(FakeStoreResponse.notModified()));
+
+        assertTrue(fakeProductsService.getChangedProducts().isEmpty());
+        verifyNoInteractions(objectMapper);
+    }
+
+    @Test
+    public void should_Skip_Parsing_When_Body_Matches_Snapshot() {
+        FakeStoreResponse snapshot = FakeStoreResponse.of(catalogBody, null, null);
+        when(fakeStoreSnapshot.load()).thenReturn(Optional.of(snapshot));
+        when(fakeStoreClient.fetchProducts(snapshot)).thenReturn(Mono.just(FakeStoreResponse.of(catalogBody.clone(), null, null)));
+
+        assertTrue(fakeProductsService.getChangedProducts().isEmpty());
+        verifyNoInteractions(objectMapper);
+    }
 
-        ProductApiDTO[] productApiDTOList = new ProductApiDTO[]{product1,product2,product3};
-        when(restTemplate.getForObject(any(String.class), eq(ProductApiDTO[].class))).thenReturn(productApiDTOList);
+    @Test
+    public void should_Save_Snapshot_When_Catalog_Is_Marked_Imported() {
+        FakeStoreResponse response = FakeStoreResponse.of(catalogBody, "\"v2\"", null);
+
+        fakeProductsService.markImported(new FakeProductsService.UpstreamCatalog(List.of(), response));
+
+        verify(fakeStoreSnapshot).save(response);
+    }
+
+    @Test
+    public void should_Throw_ApiOutOfServiceException_When_A_Product_Has_No_Id() {
+        byte[] body = "[{\"title\":\"prod1\",\"price\":123.1}]".getBytes(StandardCharsets.UTF_8);
+        when(fakeStoreClient.fetchProducts(null)).thenReturn(Mono.just(FakeStoreResponse.of(body, null, null)));
+
+        Throwable throwable = assertThrows(ApiOutOfServiceException.class, () -> fakeProductsService.getChangedProducts());
 
-        List<ProductModel> productModelList = fakeProductsService.getProductsList();
-        assertEquals(productApiDTOList[0].getName(),productModelList.get(0).getName());
-        assertEquals(productApiDTOList[1].getName(),productModelList.get(1).getName());
-        assertEquals(productApiDTOList[2].getName(),productModelList.get(2).getName());
-        assertEquals(productApiDTOList.length,productModelList.size());
+        assertEquals("The API fake store sent a product without id", throwable.getMessage());
+    }
+
+    @Test
+    public void should_Throw_ApiOutOfServiceException_When_API_Path_Is_Incorrect_Or_Offline() {
+        when(fakeStoreClient.fetchProducts(null)).thenReturn(Mono.error(
+                WebClientResponseException.create(HttpStatus.SERVICE_UNAVAILABLE.value(), "Service Unavailable", null, null, null)));
+
+        Throwable throwable = assertThrows(ApiOutOfServiceException.class, () -> fakeProductsService.getChangedProducts());
+
+        assertEquals("The API fake store is out of service", throwable.getMessage());
     }
 
     @Test
-    public void should_Throw_HttpStatusCodeException_When_API_Path_Is_Incorrect_Or_Offline() {
-        when(restTemplate.getForObject(any(String.class), eq(ProductApiDTO[].class))).thenThrow(mock(HttpStatusCodeException.class));
+    public void should_Throw_ApiOutOfServiceException_While_Circuit_Is_Open() {
+        when(fakeStoreClient.fetchProducts(null)).thenReturn(Mono.error(new CircuitBreaker.CircuitOpenException("Circuit fakestore is open, failing fast")));
 
-        Throwable throwable = assertThrows(ApiOutOfServiceException.class, () -> fakeProductsService.getProductsList());
+        Throwable throwable = assertThrows(ApiOutOfServiceException.class, () -> fakeProductsService.getChangedProducts());
 
         assertEquals("The API fake store is out of service", throwable.getMessage());
     }
 
     @Test
     public void should_Throw_ProductNotFoundException_When_No_Products_Are_Found_Fetching_API() {
-        when(restTemplate.getForObject(any(String.class), eq(ProductApiDTO[].class))).thenReturn(null);
+        when(fakeStoreClient.fetchProducts(null)).thenReturn(Mono.just(FakeStoreResponse.of(new byte[0], null, null)));
 
-        Throwable throwable = assertThrows(ProductNotFoundException.class, () -> fakeProductsService.getProductsList());
+        Throwable throwable = assertThrows(ProductNotFoundException.class, () -> fakeProductsService.getChangedProducts());
 
         assertEquals("No products found", throwable.getMessage());
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,81 @@
+package com.dev.ProductsAPI.services;
+
+import com.dev.ProductsAPI.benchmarks.BenchmarkPersistence;
+import com.dev.ProductsAPI.dtos.BulkIngestReport;
+import com.dev.ProductsAPI.mappers.ProductMapperImpl;
+import com.dev.ProductsAPI.models.ProductModel;
+import com.dev.ProductsAPI.repository.secondary.ProductsReplica;
+import com.dev.ProductsAPI.search.ProductNameIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Runs the chunk retry against a real Hibernate session on H2, where a rolled back chunk leaves
+ * the generated id and version behind on the entities.
+ */
+@ExtendWith(MockitoExtension.class)
+class ProductBulkIngestServiceJpaTest {
+
+    @Mock
+    ProductsReplica productsReplica;
+
+    @Mock
+    ProductNameIndex productNameIndex;
+
+    @Captor
+    ArgumentCaptor<List<ProductModel>> savedProductsCaptor;
+
+    BenchmarkPersistence persistence;
+
+    ProductBulkIngestService productBulkIngestService;
+
+    @BeforeEach
+    private void setUp() {
+        persistence = new BenchmarkPersistence("bulkIngestTest");
+        productBulkIngestService = new ProductBulkIngestService(persistence.productRepository, productsReplica, productNameIndex,
+                new ProductMapperImpl(), persistence.transactionManager, 2);
+    }
+
+    @AfterEach
+    private void tearDown() {
+        persistence.close();
+    }
+
+    @Test
+    public void should_Persist_The_Good_Items_Of_A_Failed_Chunk_With_Their_Ids() {
+        ProductModel goodProduct = new ProductModel(null, "prod1", new BigDecimal("10.0"));
+        ProductModel overflowingProduct = new ProductModel(null, "p".repeat(300), new BigDecimal("20.0"));
+
+        BulkIngestReport.ChunkReport report = productBulkIngestService.ingestChunk(0, 0, List.of(goodProduct, overflowingProduct));
+
+        assertEquals(1, report.saved());
+        assertEquals(1, report.failures().size());
+        assertEquals(1, report.failures().get(0).index());
+
+        assertNotNull(goodProduct.getIdProduct());
+        assertEquals(0L, goodProduct.getVersion());
+        assertTrue(persistence.productRepository.findById(goodProduct.getIdProduct()).isPresent());
+        assertEquals(1, persistence.productRepository.count());
+        assertNull(overflowingProduct.getIdProduct());
+        assertNull(overflowingProduct.getVersion());
+
+        verify(productsReplica).upsertAll(savedProductsCaptor.capture());
+        assertEquals(List.of(goodProduct), savedProductsCaptor.getValue());
+        verify(productNameIndex).upsertAll(List.of(goodProduct));
+    }
+}
@@ -0,0 +1,99 @@
+package com.dev.ProductsAPI.services;
+
+import com.dev.ProductsAPI.dtos.BulkIngestReport;
+import com.dev.ProductsAPI.dtos.ProductRecordDto;
+import com.dev.ProductsAPI.mappers.ProductMapperImpl;
+import com.dev.ProductsAPI.models.ProductModel;
+import com.dev.ProductsAPI.repository.primary.ProductRepository;
+import com.dev.ProductsAPI.repository.secondary.ProductsReplica;
+import com.dev.ProductsAPI.search.ProductNameIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductBulkIngestServiceTest {
+
+    @Mock
+    ProductRepository productRepository;
+
+    @Mock
+    ProductsReplica productsReplica;
+
+    @Mock
+    ProductNameIndex productNameIndex;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    ProductBulkIngestService productBulkIngestService;
+
+    List<ProductRecordDto> productRecordDtoList;
+
+    @BeforeEach
+    private void setUp() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        productBulkIngestService = new ProductBulkIngestService(productRepository, productsReplica, productNameIndex, new ProductMapperImpl(), transactionManager, 2);
+        productRecordDtoList = IntStream.rangeClosed(1, 5)
+                .mapToObj(i -> new ProductRecordDto("prod" + i, new BigDecimal(i + "0.0")))
+                .toList();
+    }
+
+    @Test
+    public void should_Save_Products_In_Chunks_With_One_Transaction_Per_Chunk() {
+        BulkIngestReport report = productBulkIngestService.ingest(productRecordDtoList);
+
+        verify(productRepository, times(3)).saveAll(anyList());
+        verify(productRepository, times(3)).flush();
+        verify(transactionManager, times(3)).commit(any());
+        verify(productRepository, never()).saveAndFlush(any());
+        verify(productsReplica, times(3)).upsertAll(anyList());
+
+        assertEquals(5, report.received());
+        assertEquals(5, report.saved());
+        assertEquals(0, report.failed());
+        assertEquals(3, report.chunks().size());
+        assertEquals(4, report.chunks().get(2).offset());
+        assertEquals(1, report.chunks().get(2).size());
+    }
+
+    @Test
+    public void should_Retry_A_Failed_Chunk_Item_By_Item_And_Report_The_Failed_Items() {
+        when(productRepository.saveAll(anyList()))
+                .thenReturn(List.of())
+                .thenThrow(new RuntimeException("constraint violated"))
+                .thenReturn(List.of());
+        when(productRepository.saveAndFlush(any(ProductModel.class))).then(invocationOnMock -> {
+            ProductModel productModel = invocationOnMock.getArgument(0);
+            if (productModel.getName().equals("prod4")) {
+                throw new RuntimeException("value too long");
+            }
+            return productModel;
+        });
+
+        BulkIngestReport report = productBulkIngestService.ingest(productRecordDtoList);
+
+        verify(productRepository, times(2)).saveAndFlush(any(ProductModel.class));
+        assertEquals(4, report.saved());
+        assertEquals(1, report.failed());
+
+        BulkIngestReport.ChunkReport failedChunk = report.chunks().get(1);
+        assertEquals(1, failedChunk.saved());
+        assertEquals(1, failedChunk.failures().size());
+        assertEquals(3, failedChunk.failures().get(0).index());
+        assertEquals("prod4", failedChunk.failures().get(0).name());
+        assertTrue(report.chunks().get(0).failures().isEmpty());
+    }
+}
@@ -1,36 +1,63 @@
 package com.dev.ProductsAPI.services;
 
+import com.dev.ProductsAPI.client.FakeStoreResponse;
+import com.dev.ProductsAPI.dtos.ProductBatchGetResult;
+import com.dev.ProductsAPI.dtos.ProductBulkMutationReport;
+import com.dev.ProductsAPI.dtos.ProductKeysetPage;
+import com.dev.ProductsAPI.dtos.ProductPatchDto;
 import com.dev.ProductsAPI.dtos.ProductRecordDto;
+import com.dev.ProductsAPI.dtos.ProductRefDto;
+import com.dev.ProductsAPI.dtos.ProductSyncReport;
+import com.dev.ProductsAPI.exceptions.InvalidCursorException;
+import com.dev.ProductsAPI.exceptions.InvalidQueryException;
 import com.dev.ProductsAPI.exceptions.NoContentException;
 import com.dev.ProductsAPI.exceptions.ProductNotFoundException;
 import com.dev.ProductsAPI.exceptions.ProductSaveException;
+import com.dev.ProductsAPI.exceptions.ProductVersionConflictException;
+import com.dev.ProductsAPI.mappers.ProductMapper;
+import com.dev.ProductsAPI.mappers.ProductMapperImpl;
 import com.dev.ProductsAPI.models.ProductModel;
+import com.dev.ProductsAPI.projections.ProductFieldSet;
+import com.dev.ProductsAPI.projections.ProductIdView;
+import com.dev.ProductsAPI.projections.ProductNameView;
+import com.dev.ProductsAPI.projections.ProductValueView;
+import com.dev.ProductsAPI.repository.primary.ProductMutationRepository;
 import com.dev.ProductsAPI.repository.primary.ProductRepository;
+import com.dev.ProductsAPI.repository.primary.ProductUpsertRepository;
+import com.dev.ProductsAPI.repository.secondary.ProductsReplica;
+import com.dev.ProductsAPI.routing.ProductReadRouter;
+import com.dev.ProductsAPI.search.ProductNameIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.BeanUtils;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.web.PagedResourcesAssembler;
-import org.springframework.hateoas.EntityModel;
-import org.springframework.hateoas.PagedModel;
-import org.springframework.hateoas.server.RepresentationModelAssembler;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import static org.mockito.Mockito.*;
 
@@ -42,10 +69,25 @@ class ProductServiceTest {
     ProductRepository productRepository;
 
     @Mock
-    FakeProductsService fakeProductsService;
+    ProductUpsertRepository productUpsertRepository;
+
+    @Mock
+    ProductMutationRepository productMutationRepository;
+
+    @Mock
+    ProductsReplica productsReplica;
+
+    @Mock
+    ProductReadRouter productReadRouter;
+
+    @Mock
+    ProductNameIndex productNameIndex;
 
     @Mock
-    PagedResourcesAssembler<ProductModel> assembler;
+    FakeProductsService fakeProductsService;
+
+    @Spy
+    ProductMapper productMapper = new ProductMapperImpl();
 
     @InjectMocks
     ProductService productService;
@@ -61,6 +103,8 @@ class ProductServiceTest {
 
     @BeforeEach
     private void setUp() {
+        lenient().when(productReadRouter.reader()).thenReturn(productRepository);
+
         product1 = new ProductModel(UUID.randomUUID(),"prod1",new BigDecimal("10.0"));
         product2 = new ProductModel(UUID.randomUUID(),"prod2",new BigDecimal("20.0"));
         product3 = new ProductModel(UUID.randomUUID(),"prod3",new BigDecimal("30.0"));
@@ -72,22 +116,49 @@ class ProductServiceTest {
     }
 
     @Test
-    public void should_Consume_FakeProductsService_And_Save_Products_Into_DB() {
+    public void should_Consume_FakeProductsService_And_Upsert_Products_Into_DB() {
 
         List<ProductModel> productModelList = List.of(product1,product2,product3,product4);
 
-        when(fakeProductsService.getProductsList()).thenReturn(productModelList);
+        FakeProductsService.UpstreamCatalog catalog = new FakeProductsService.UpstreamCatalog(productModelList,
+                FakeStoreResponse.of(new byte[]{'[', ']'}, "\"v1\"", null));
+        when(fakeProductsService.getChangedProducts()).thenReturn(Optional.of(catalog));
+        when(productUpsertRepository.upsertAll(eq(productModelList), any()))
+                .thenReturn(new ProductUpsertRepository.UpsertResult(List.of(product1), List.of(product2), 2));
+
+        ProductSyncReport report = productService.saveProductsIntoDB();
+
+        verify(fakeProductsService,times(1)).getChangedProducts();
+
+        verify(productRepository, never()).save(any());
+        verify(productsReplica).upsertAll(List.of(product1, product2));
+        verify(productNameIndex).upsertAll(List.of(product1, product2));
+        verify(fakeProductsService).markImported(catalog);
+
+        assertEquals(new ProductSyncReport(true, 4, 1, 1, 2), report);
+    }
+
+    @Test
+    public void should_Skip_Persistence_When_FakeStore_Catalog_Is_Not_Modified() {
+        when(fakeProductsService.getChangedProducts()).thenReturn(Optional.empty());
+
+        ProductSyncReport report = productService.saveProductsIntoDB();
 
-        List<ProductModel> listReturned = productService.saveProductsIntoDB();
+        assertFalse(report.upstreamModified());
+        verifyNoInteractions(productUpsertRepository, productRepository, productsReplica, productNameIndex);
+        verify(fakeProductsService, never()).markImported(any());
+    }
 
-        verify(fakeProductsService,times(1)).getProductsList();
+    @Test
+    public void should_Not_Mark_Catalog_Imported_When_Saving_Fails() {
+        FakeProductsService.UpstreamCatalog catalog = new FakeProductsService.UpstreamCatalog(List.of(product1),
+                FakeStoreResponse.of(new byte[]{'[', ']'}, "\"v1\"", null));
+        when(fakeProductsService.getChangedProducts()).thenReturn(Optional.of(catalog));
+        when(productUpsertRepository.upsertAll(eq(List.of(product1)), any())).thenThrow(new RuntimeException("connection lost"));
 
-        verify(productRepository, times(1)).save(product1);
-        verify(productRepository, times(1)).save(product2);
-        verify(productRepository, times(1)).save(product3);
-        verify(productRepository, times(1)).save(product4);
+        assertThrows(RuntimeException.class, () -> productService.saveProductsIntoDB());
 
-        assertEquals(productModelList, listReturned);
+        verify(fakeProductsService, never()).markImported(any());
     }
 
     @Test
@@ -142,20 +213,11 @@ class ProductServiceTest {
                 pageable,
                 productModelList.size());
 
-        PagedModel<EntityModel<ProductModel>> pagedModelTest =
-                PagedModel.of(
-                        List.of(
-                                EntityModel.of(productModelList.get(3)),
-                                EntityModel.of(productModelList.get(4))
-                        ),
-                        new PagedModel.PageMetadata(pageable.getPageSize(),pageable.getPageNumber(),productModelList.size())
-                );
-
         when(productRepository.findAll(pageable)).thenReturn(page);
-        when(assembler.toModel(eq(page), any(RepresentationModelAssembler.class))).thenReturn(pagedModelTest);
 
-        PagedModel<EntityModel<ProductModel>> pagedModelResult = productService.getAllProducts(pageable);
-        assertEquals(pagedModelTest,pagedModelResult);
+        Page<ProductModel> pageResult = productService.getAllProducts(pageable);
+        assertEquals(page,pageResult);
+        assertEquals(List.of(product4, product5), pageResult.getContent());
     }
 
     @Test
@@ -169,6 +231,128 @@ class ProductServiceTest {
         verify(productRepository).findAll(pageable);
     }
 
+    @Test
+    public void should_Get_A_Page_Of_Projections_Of_The_Requested_Fields() {
+        Pageable pageable = PageRequest.of(0, 2);
+        SpelAwareProxyProjectionFactory projectionFactory = new SpelAwareProxyProjectionFactory();
+        Page<ProductNameView> page = new PageImpl<>(List.of(
+                projectionFactory.createProjection(ProductNameView.class, product1),
+                projectionFactory.createProjection(ProductNameView.class, product2)), pageable, 5);
+
+        when(productRepository.findProjectedBy(pageable, ProductNameView.class)).thenReturn(page);
+
+        Page<ProductIdView> pageResult = productService.getAllProducts(pageable, ProductFieldSet.NAME);
+
+        assertEquals(5, pageResult.getTotalElements());
+        assertEquals("prod2", ((ProductNameView) pageResult.getContent().get(1)).getName());
+        verify(productRepository, never()).findAll(pageable);
+    }
+
+    @Test
+    public void should_Throw_An_Exception_Where_There_Are_No_Projections_To_Get() {
+        Pageable pageable = PageRequest.of(0, 20);
+        when(productRepository.findProjectedBy(pageable, ProductIdView.class)).thenReturn(Page.empty());
+
+        Throwable throwable = assertThrows(NoContentException.class, () -> productService.getAllProducts(pageable, ProductFieldSet.ID));
+        assertEquals("There are no products to list", throwable.getMessage());
+    }
+
+    @Test
+    public void should_Query_Products_In_Database_With_Id_As_Sort_Tie_Breaker() {
+        Pageable pageable = PageRequest.of(0, 2, Sort.by("value"));
+        Pageable stablePageable = PageRequest.of(0, 2, Sort.by("value").and(Sort.by("idProduct")));
+        Page<ProductModel> page = new PageImpl<>(List.of(product2, product3), stablePageable, 2);
+
+        when(productRepository.findAll(any(Specification.class), eq(stablePageable))).thenReturn(page);
+
+        Page<ProductModel> pageResult =
+                productService.queryProducts("prod", new BigDecimal("15.0"), new BigDecimal("35.0"), pageable);
+
+        assertEquals(page, pageResult);
+    }
+
+    @Test
+    public void should_Throw_InvalidQueryException_When_Value_Range_Is_Inverted() {
+        Throwable throwable = assertThrows(InvalidQueryException.class,
+                () -> productService.queryProducts(null, new BigDecimal("50.0"), new BigDecimal("10.0"), PageRequest.of(0, 20)));
+        assertEquals("minValue must not be greater than maxValue", throwable.getMessage());
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    public void should_Throw_InvalidQueryException_When_Sorting_By_Unindexed_Property() {
+        assertThrows(InvalidQueryException.class,
+                () -> productService.queryProducts(null, null, null, PageRequest.of(0, 20, Sort.by("links"))));
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    public void should_Search_Products_In_Name_Index() {
+        Pageable pageable = PageRequest.of(0, 20);
+        Page<ProductModel> page = new PageImpl<>(List.of(product1), pageable, 1);
+
+        when(productNameIndex.search("prod1", pageable)).thenReturn(page);
+
+        assertEquals(page, productService.searchProducts("prod1", pageable));
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    public void should_Throw_InvalidQueryException_When_Search_Query_Is_Blank() {
+        assertThrows(InvalidQueryException.class, () -> productService.searchProducts(" ", PageRequest.of(0, 20)));
+        verifyNoInteractions(productNameIndex);
+    }
+
+    @Test
+    public void should_Get_First_Keyset_Page_With_Next_Cursor() {
+        when(productRepository.findByOrderByNameAscIdProductAsc(Limit.of(3))).thenReturn(List.of(product1, product2, product3));
+
+        ProductKeysetPage keysetPage = productService.getProductsAfter("", 2);
+
+        assertEquals(List.of(product1, product2), keysetPage.content());
+        assertEquals(2, keysetPage.size());
+        assertEquals(ProductCursor.after(product2).encode(), keysetPage.next());
+    }
+
+    @Test
+    public void should_Seek_After_Cursor_And_Omit_Next_Link_On_Last_Page() {
+        String after = ProductCursor.after(product2).encode();
+        when(productRepository.findPageAfter(product2.getName(), product2.getIdProduct(), Limit.of(3))).thenReturn(List.of(product3));
+
+        ProductKeysetPage keysetPage = productService.getProductsAfter(after, 2);
+
+        assertEquals(1, keysetPage.content().size());
+        assertNull(keysetPage.next());
+    }
+
+    @Test
+    public void should_Continue_Keyset_Pages_Into_Products_Without_Name() {
+        product4.setName(null);
+        product5.setName(null);
+        String after = ProductCursor.after(product3).encode();
+        when(productRepository.findPageAfter(product3.getName(), product3.getIdProduct(), Limit.of(2))).thenReturn(List.of());
+        when(productRepository.findByNameIsNullOrderByIdProductAsc(Limit.of(2))).thenReturn(List.of(product4, product5));
+
+        ProductKeysetPage keysetPage = productService.getProductsAfter(after, 1);
+
+        assertEquals(List.of(product4), keysetPage.content());
+        ProductCursor next = ProductCursor.decode(keysetPage.next());
+        assertNull(next.name());
+        assertEquals(product4.getIdProduct(), next.idProduct());
+
+        when(productRepository.findByNameIsNullAndIdProductGreaterThanOrderByIdProductAsc(product4.getIdProduct(), Limit.of(2)))
+                .thenReturn(List.of(product5));
+
+        assertEquals(List.of(product5), productService.getProductsAfter(keysetPage.next(), 1).content());
+        verify(productRepository, never()).findPageAfter(isNull(), any(), any());
+    }
+
+    @Test
+    public void should_Throw_InvalidCursorException_When_Cursor_Is_Malformed() {
+        assertThrows(InvalidCursorException.class, () -> productService.getProductsAfter("not-a-cursor", 2));
+        verifyNoInteractions(productRepository);
+    }
+
     @Test
     public void should_Get_A_Single_Product() {
         UUID id = UUID.randomUUID();
@@ -192,50 +376,194 @@ class ProductServiceTest {
         assertEquals("This product was not found. Try again.", throwable.getMessage());
     }
 
+    @Test
+    public void should_Get_A_Projection_Of_A_Single_Product() {
+        ProductValueView view = new SpelAwareProxyProjectionFactory().createProjection(ProductValueView.class, product1);
+
+        when(productRepository.findProjectedByIdProduct(product1.getIdProduct(), ProductValueView.class)).thenReturn(Optional.of(view));
+
+        ProductIdView viewReturned = productService.getOneProduct(product1.getIdProduct(), ProductFieldSet.VALUE);
+
+        assertEquals(product1.getIdProduct(), viewReturned.getIdProduct());
+        assertEquals(product1.getValue(), ((ProductValueView) viewReturned).getValue());
+        verify(productRepository, never()).findById(any());
+    }
+
+    @Test
+    public void should_Throw_Exception_When_Projecting_An_Inexistent_Product() {
+        UUID id = UUID.randomUUID();
+        Throwable throwable = assertThrows(ProductNotFoundException.class, () -> productService.getOneProduct(id, ProductFieldSet.ALL));
+        assertEquals("This product was not found. Try again.", throwable.getMessage());
+    }
+
     @Test
     public void should_Update_A_Product_Successfully() {
         UUID id = UUID.randomUUID();
-        product5.setIdProduct(id);
+        ProductModel productUpdated = new ProductModel(id, productDTO1.name(), productDTO1.value());
 
+        when(productMutationRepository.update(productUpdated, 3L)).thenReturn(OptionalLong.of(4L));
+        ProductModel productModelResult = productService.updateProduct(id, productDTO1, 3L);
 
-        when(productRepository.findById(id)).thenReturn(Optional.of(product5));
-        when(productRepository.save(product5)).thenReturn(product5);
-        ProductModel productModelResult = productService.updateProduct(id, productDTO1);
+        assertEquals(productUpdated, productModelResult);
+        assertEquals(productDTO1.value(), productModelResult.getValue());
+        assertEquals(4L, productModelResult.getVersion());
 
-        assertEquals(product5, productModelResult);
+        verify(productRepository, never()).findById(any());
+        verify(productRepository, never()).save(any());
+        verify(productsReplica).upsert(productModelResult);
+        verify(productNameIndex).upsertAll(List.of(productModelResult));
+    }
 
-        verify(productRepository).save(product5);
+    @Test
+    public void should_Update_A_Product_Without_Expected_Version() {
+        UUID id = UUID.randomUUID();
+
+        when(productMutationRepository.update(any(ProductModel.class), isNull())).thenReturn(OptionalLong.of(1L));
+        ProductModel productModelResult = productService.updateProduct(id, productDTO1, null);
+
+        assertEquals(id, productModelResult.getIdProduct());
+        assertEquals(1L, productModelResult.getVersion());
     }
 
     @Test
     public void should_Throw_A_ProductNotFoundException_When_Updating_An_Inexistent_Product() {
         UUID id = UUID.randomUUID();
 
-        when(productRepository.findById(id)).thenReturn(Optional.empty());
+        when(productMutationRepository.update(any(ProductModel.class), isNull())).thenReturn(OptionalLong.empty());
 
-        Throwable throwable = assertThrows(ProductNotFoundException.class, () -> productService.updateProduct(id, any(ProductRecordDto.class)));
+        Throwable throwable = assertThrows(ProductNotFoundException.class, () -> productService.updateProduct(id, productDTO1, null));
         assertEquals("This product was not found. Try again.", throwable.getMessage());
+        verify(productRepository, never()).existsById(any());
+        verifyNoInteractions(productsReplica, productNameIndex);
+    }
+
+    @Test
+    public void should_Throw_A_ProductVersionConflictException_When_Updating_A_Stale_Version() {
+        UUID id = UUID.randomUUID();
+
+        when(productMutationRepository.update(any(ProductModel.class), eq(3L))).thenReturn(OptionalLong.empty());
+        when(productRepository.existsById(id)).thenReturn(true);
+
+        Throwable throwable = assertThrows(ProductVersionConflictException.class, () -> productService.updateProduct(id, productDTO1, 3L));
+        assertEquals("This product was changed in the meantime. Reload it and try again.", throwable.getMessage());
+        verifyNoInteractions(productsReplica, productNameIndex);
+    }
+
+    @Test
+    public void should_Throw_A_ProductNotFoundException_When_Updating_A_Version_Of_An_Inexistent_Product() {
+        UUID id = UUID.randomUUID();
+
+        when(productMutationRepository.update(any(ProductModel.class), eq(3L))).thenReturn(OptionalLong.empty());
+        when(productRepository.existsById(id)).thenReturn(false);
+
+        assertThrows(ProductNotFoundException.class, () -> productService.updateProduct(id, productDTO1, 3L));
     }
 
     @Test
     public void should_Delete_A_Product_With_Success() {
         UUID id = UUID.randomUUID();
-        product1.setIdProduct(id);
-        Optional<ProductModel> productModelOptional = Optional.of(product1);
-        when(productRepository.findById(id)).thenReturn(productModelOptional);
+        when(productMutationRepository.delete(id, 2L)).thenReturn(true);
 
-        productService.deleteProduct(id);
+        productService.deleteProduct(id, 2L);
 
-        verify(productRepository).delete(productModelOptional.get());
+        verify(productRepository, never()).findById(any());
+        verify(productsReplica).delete(id);
+        verify(productNameIndex).removeAll(List.of(id));
     }
 
     @Test
     public void should_Throw_ProductNotFoundException_When_Trying_To_Delete_Inexistent_Product() {
         UUID id = UUID.randomUUID();
 
-        Throwable throwable = assertThrows(ProductNotFoundException.class ,() -> productService.deleteProduct(id));
+        Throwable throwable = assertThrows(ProductNotFoundException.class ,() -> productService.deleteProduct(id, null));
         assertEquals("This product was not found. Try again.", throwable.getMessage());
-        verify(productRepository,never()).delete(any(ProductModel.class));
+        verify(productMutationRepository).delete(id, null);
+        verify(productsReplica,never()).delete(any());
+    }
+
+    @Test
+    public void should_Throw_ProductVersionConflictException_When_Deleting_A_Stale_Version() {
+        UUID id = UUID.randomUUID();
+        when(productRepository.existsById(id)).thenReturn(true);
+
+        assertThrows(ProductVersionConflictException.class, () -> productService.deleteProduct(id, 2L));
+        verify(productsReplica,never()).delete(any());
+        verify(productNameIndex,never()).removeAll(any());
+    }
+
+    @Test
+    public void should_Get_Products_In_The_Requested_Order_With_One_Query() {
+        UUID unknownId = UUID.randomUUID();
+        when(productRepository.findAllById(List.of(product3.getIdProduct(), unknownId, product1.getIdProduct())))
+                .thenReturn(List.of(product1, product3));
+
+        ProductBatchGetResult result = productService.getProducts(
+                List.of(product3.getIdProduct(), unknownId, product1.getIdProduct(), product3.getIdProduct()));
+
+        assertEquals(List.of(product3, product1), result.products());
+        assertEquals(List.of(unknownId), result.notFound());
+        verify(productRepository).findAllById(any());
+        verify(productRepository, never()).findById(any());
+    }
+
+    @Test
+    public void should_Throw_InvalidQueryException_When_No_Products_Are_Given() {
+        Throwable throwable = assertThrows(InvalidQueryException.class, () -> productService.getProducts(List.of()));
+        assertEquals("No products were given", throwable.getMessage());
+        verify(productRepository, never()).findAllById(any());
+    }
+
+    @Test
+    public void should_Patch_Products_And_Report_Missing_And_Stale_Ones() {
+        UUID unknownId = UUID.randomUUID();
+        List<ProductPatchDto> patches = List.of(
+                new ProductPatchDto(product1.getIdProduct(), "prod1 updated", null, 1L),
+                new ProductPatchDto(product2.getIdProduct(), null, new BigDecimal("25.0"), 4L),
+                new ProductPatchDto(unknownId, "prod6", null, 2L),
+                new ProductPatchDto(product4.getIdProduct(), "prod4 updated", null, null));
+        ProductModel updated = new ProductModel(product1.getIdProduct(), "prod1 updated", product1.getValue());
+        updated.setVersion(2L);
+        when(productMutationRepository.updateAll(patches)).thenReturn(List.of(updated));
+        when(productMutationRepository.findExistingIds(List.of(product2.getIdProduct(), unknownId)))
+                .thenReturn(Set.of(product2.getIdProduct()));
+
+        ProductBulkMutationReport<ProductModel> report = productService.patchProducts(patches);
+
+        assertEquals(4, report.received());
+        assertEquals(List.of(updated), report.applied());
+        assertEquals(List.of(product2.getIdProduct()), report.conflicts());
+        assertEquals(List.of(unknownId, product4.getIdProduct()), report.notFound());
+        assertFalse(report.allApplied());
+        verify(productsReplica).upsertAll(List.of(updated));
+        verify(productNameIndex).upsertAll(List.of(updated));
+    }
+
+    @Test
+    public void should_Throw_InvalidQueryException_When_A_Product_Is_Patched_Twice() {
+        List<ProductPatchDto> patches = List.of(
+                new ProductPatchDto(product1.getIdProduct(), "prod1 updated", null, null),
+                new ProductPatchDto(product1.getIdProduct(), null, new BigDecimal("11.0"), null));
+
+        Throwable throwable = assertThrows(InvalidQueryException.class, () -> productService.patchProducts(patches));
+        assertEquals("Product " + product1.getIdProduct() + " is given more than once", throwable.getMessage());
+        verify(productMutationRepository, never()).updateAll(any());
+    }
+
+    @Test
+    public void should_Delete_Products_Without_Looking_Up_Unconditional_Misses() {
+        UUID unknownId = UUID.randomUUID();
+        List<ProductRefDto> products = List.of(new ProductRefDto(product1.getIdProduct(), null), new ProductRefDto(unknownId, null));
+        when(productMutationRepository.deleteAll(products)).thenReturn(List.of(product1.getIdProduct()));
+
+        ProductBulkMutationReport<UUID> report = productService.deleteProducts(products);
+
+        assertEquals(List.of(product1.getIdProduct()), report.applied());
+        assertEquals(List.of(unknownId), report.notFound());
+        assertTrue(report.conflicts().isEmpty());
+        verify(productMutationRepository, never()).findExistingIds(any());
+        verify(productMutationRepository, never()).delete(any(), any());
+        verify(productsReplica).deleteAll(List.of(product1.getIdProduct()));
+        verify(productNameIndex).removeAll(List.of(product1.getIdProduct()));
     }
 
-}
\ No newline at end of file
+}
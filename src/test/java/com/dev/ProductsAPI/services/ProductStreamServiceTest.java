@@ -0,0 +1,136 @@
+package com.dev.ProductsAPI.services;
+
+import com.dev.ProductsAPI.dtos.BulkIngestReport;
+import com.dev.ProductsAPI.mappers.ProductMapperImpl;
+import com.dev.ProductsAPI.models.ProductModel;
+import com.dev.ProductsAPI.repository.primary.ProductRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductStreamServiceTest {
+
+    @Mock
+    ProductBulkIngestService productBulkIngestService;
+
+    @Mock
+    ProductRepository productRepository;
+
+    @Mock
+    EntityManager entityManager;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    ProductStreamService productStreamService;
+
+    @BeforeEach
+    private void setUp() {
+        productStreamService = new ProductStreamService();
+        productStreamService.productBulkIngestService = productBulkIngestService;
+        productStreamService.productRepository = productRepository;
+        productStreamService.entityManager = entityManager;
+        productStreamService.transactionManager = transactionManager;
+        productStreamService.objectMapper = new ObjectMapper();
+        productStreamService.validator = Validation.buildDefaultValidatorFactory().getValidator();
+        productStreamService.productMapper = new ProductMapperImpl();
+    }
+
+    @Test
+    public void should_Persist_Valid_Lines_In_Chunks_And_Stream_One_Result_Per_Line() throws Exception {
+        when(productBulkIngestService.getChunkSize()).thenReturn(2);
+        when(productBulkIngestService.ingestChunk(anyInt(), anyInt(), anyList())).then(invocationOnMock -> {
+            int chunk = invocationOnMock.getArgument(0);
+            int offset = invocationOnMock.getArgument(1);
+            List<ProductModel> productModels = invocationOnMock.getArgument(2);
+            productModels.forEach(productModel -> productModel.setIdProduct(UUID.randomUUID()));
+            return new BulkIngestReport.ChunkReport(chunk, offset, productModels.size(), productModels.size(), List.of());
+        });
+
+        String payload = """
+                {"name":"prod1","value":10.0}
+                {"name":"","value":20.0}
+
+                {"name":"prod3","value":30.0}
+                not json
+                """;
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        productStreamService.ingestNdjson(new ByteArrayInputStream(payload.getBytes(StandardCharsets.UTF_8)), output);
+
+        String[] results = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(4, results.length);
+        assertTrue(results[0].contains("\"line\":1,\"status\":\"CREATED\""));
+        assertTrue(results[1].contains("\"line\":2,\"status\":\"INVALID\""));
+        assertTrue(results[2].contains("\"line\":4,\"status\":\"CREATED\""));
+        assertTrue(results[3].contains("\"line\":5,\"status\":\"INVALID\""));
+
+        verify(productBulkIngestService).ingestChunk(eq(0), eq(0), argThat(list -> list.size() == 1));
+        verify(productBulkIngestService).ingestChunk(eq(1), eq(1), argThat(list -> list.size() == 1));
+    }
+
+    @Test
+    public void should_Report_Items_Rejected_By_The_Database_As_Failed() throws Exception {
+        when(productBulkIngestService.getChunkSize()).thenReturn(10);
+        when(productBulkIngestService.ingestChunk(anyInt(), anyInt(), anyList())).thenReturn(
+                new BulkIngestReport.ChunkReport(0, 0, 1, 0,
+                        List.of(new BulkIngestReport.ItemFailure(0, "prod1", "duplicate key"))));
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        productStreamService.ingestNdjson(
+                new ByteArrayInputStream("{\"name\":\"prod1\",\"value\":10.0}".getBytes(StandardCharsets.UTF_8)), output);
+
+        assertEquals("{\"line\":1,\"status\":\"FAILED\",\"errors\":[\"duplicate key\"]}\n", output.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void should_Export_Products_As_Csv_Detaching_Each_Row() {
+        ProductModel product1 = new ProductModel(UUID.fromString("cea90302-285e-4b26-bd75-ee3254246021"), "prod1", new BigDecimal("10.0"));
+        ProductModel product2 = new ProductModel(UUID.fromString("0b5d4c1e-6a43-4d4b-9a8e-1f0e4c3b2a10"), "big, \"red\" box", new BigDecimal("20.5"));
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(productRepository.streamAll()).thenReturn(Stream.of(product1, product2));
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        productStreamService.export(ProductStreamService.ExportFormat.CSV, output);
+
+        assertEquals("idProduct,name,value\n"
+                        + "cea90302-285e-4b26-bd75-ee3254246021,prod1,10.0\n"
+                        + "0b5d4c1e-6a43-4d4b-9a8e-1f0e4c3b2a10,\"big, \"\"red\"\" box\",20.5\n",
+                output.toString(StandardCharsets.UTF_8));
+        verify(entityManager).detach(product1);
+        verify(entityManager).detach(product2);
+    }
+
+    @Test
+    public void should_Export_Products_As_Ndjson() {
+        ProductModel product1 = new ProductModel(UUID.fromString("cea90302-285e-4b26-bd75-ee3254246021"), "prod1", new BigDecimal("10.0"));
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(productRepository.streamAll()).thenReturn(Stream.of(product1));
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        productStreamService.export(ProductStreamService.ExportFormat.NDJSON, output);
+
+        assertEquals("{\"idProduct\":\"cea90302-285e-4b26-bd75-ee3254246021\",\"name\":\"prod1\",\"value\":10.0}\n",
+                output.toString(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,154 @@
+package com.dev.ProductsAPI.sync;
+
+import com.dev.ProductsAPI.models.ProductModel;
+import com.dev.ProductsAPI.repository.secondary.ProductsReplica;
+import com.dev.ProductsAPI.search.ProductNameIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+/**
+ * Drives the sync against a change log on H2, writing the change ids by hand to open gaps the
+ * way transactions committing out of order do on PostgreSQL.
+ */
+@ExtendWith(MockitoExtension.class)
+class ProductsReplicaSyncTest {
+
+    @Mock
+    ProductsReplica productsReplica;
+
+    @Mock
+    ProductNameIndex productNameIndex;
+
+    @Captor
+    ArgumentCaptor<List<ProductModel>> productsCaptor;
+
+    JdbcTemplate jdbcTemplate;
+
+    DriverManagerDataSource dataSource;
+
+    ProductModel product1;
+    ProductModel product2;
+    ProductModel product3;
+
+    @BeforeEach
+    private void setUp() {
+        dataSource = new DriverManagerDataSource("jdbc:h2:mem:replicaSyncTest;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;NON_KEYWORDS=VALUE", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE \"tb products\" (id_product UUID PRIMARY KEY, name VARCHAR(255), value NUMERIC(38, 2), version BIGINT)");
+        jdbcTemplate.execute("CREATE TABLE product_change_log (change_id BIGINT PRIMARY KEY, id_product UUID NOT NULL, changed_at TIMESTAMP NOT NULL)");
+
+        product1 = insertProduct("prod1");
+        product2 = insertProduct("prod2");
+        product3 = insertProduct("prod3");
+
+        lenient().when(productsReplica.isLoaded()).thenReturn(true);
+        lenient().when(productsReplica.upsertAll(anyList())).thenReturn(true);
+        lenient().when(productsReplica.deleteAll(anySet())).thenReturn(true);
+    }
+
+    @AfterEach
+    private void tearDown() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    public void should_Apply_A_Late_Change_When_Its_Gap_Fills() {
+        ProductsReplicaSync productsReplicaSync = newSync(Duration.ofMinutes(5));
+        productsReplicaSync.startFromCurrentPosition();
+        logChange(1, product1);
+        logChange(3, product3);
+
+        productsReplicaSync.sync();
+
+        assertEquals(3, productsReplicaSync.getLastAppliedChangeId());
+        // change 2 may still commit, so only the changes below it are pruned
+        assertEquals(List.of(3L), loggedChangeIds());
+
+        logChange(2, product2);
+        productsReplicaSync.sync();
+
+        verify(productsReplica, times(2)).upsertAll(productsCaptor.capture());
+        assertEquals(Set.of(product1, product3), Set.copyOf(productsCaptor.getAllValues().get(0)));
+        assertEquals(List.of(product2), productsCaptor.getAllValues().get(1));
+        assertEquals(List.of(), loggedChangeIds());
+    }
+
+    @Test
+    public void should_Drop_A_Gap_That_Never_Fills_After_The_Gap_Timeout() throws InterruptedException {
+        ProductsReplicaSync productsReplicaSync = newSync(Duration.ofMillis(50));
+        productsReplicaSync.startFromCurrentPosition();
+        logChange(1, product1);
+        logChange(3, product3);
+
+        productsReplicaSync.sync();
+        assertEquals(List.of(3L), loggedChangeIds());
+
+        Thread.sleep(100);
+        productsReplicaSync.sync();
+
+        verify(productsReplica, times(1)).upsertAll(anyList());
+        assertEquals(3, productsReplicaSync.getLastAppliedChangeId());
+        assertEquals(List.of(), loggedChangeIds());
+    }
+
+    @Test
+    public void should_Not_Prune_Changes_The_Replica_Has_Not_Applied() {
+        ProductsReplicaSync productsReplicaSync = newSync(Duration.ofMinutes(5));
+        productsReplicaSync.startFromCurrentPosition();
+        logChange(1, product1);
+        logChange(2, product2);
+        when(productsReplica.upsertAll(anyList())).thenReturn(false).thenReturn(true);
+
+        productsReplicaSync.sync();
+
+        assertEquals(0, productsReplicaSync.getLastAppliedChangeId());
+        assertEquals(List.of(1L, 2L), loggedChangeIds());
+
+        productsReplicaSync.sync();
+
+        assertEquals(2, productsReplicaSync.getLastAppliedChangeId());
+        assertEquals(List.of(), loggedChangeIds());
+    }
+
+    private ProductsReplicaSync newSync(Duration gapTimeout) {
+        // with no retention every applied change may be pruned at once
+        return new ProductsReplicaSync(dataSource, productsReplica, productNameIndex, new SimpleMeterRegistry(), 10, Duration.ZERO, gapTimeout);
+    }
+
+    private ProductModel insertProduct(String name) {
+        ProductModel product = new ProductModel(UUID.randomUUID(), name, new BigDecimal("10.00"));
+        product.setVersion(0L);
+        jdbcTemplate.update("INSERT INTO \"tb products\" (id_product, name, value, version) VALUES (?, ?, ?, ?)",
+                product.getIdProduct(), product.getName(), product.getValue(), product.getVersion());
+        return product;
+    }
+
+    private void logChange(long changeId, ProductModel product) {
+        jdbcTemplate.update("INSERT INTO product_change_log (change_id, id_product, changed_at) VALUES (?, ?, ?)",
+                changeId, product.getIdProduct(), Timestamp.from(Instant.now().minusSeconds(60)));
+    }
+
+    private List<Long> loggedChangeIds() {
+        return jdbcTemplate.queryForList("SELECT change_id FROM product_change_log ORDER BY change_id", Long.class);
+    }
+}